@@ -0,0 +1,123 @@
+#!/usr/bin/env bash
+# Compare deux configurations Filebeat sur le même corpus de logs : événements expédiés,
+# octets, lignes JSON laissées à parser par Logstash, et CPU consommé par Filebeat.
+# Logstash est remplacé par benchmarks/lumberjack-sink.py (protocole beats, acquittement immédiat).
+#
+# Par défaut : filebeat/filebeat.yml de l'arbre de travail contre la version qui précède
+# sa dernière modification dans git.
+#
+# Prérequis : binaire filebeat 8.x (variable FILEBEAT, ou filebeat dans le PATH)
+# Usage     : benchmarks/filebeat-ingest.sh [requests] [old-ref]
+
+set -euo pipefail
+
+REQUESTS=${1:-50000}
+ROOT_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+OLD_REF=${2:-$(git -C "$ROOT_DIR" log -n 1 --format=%H -- filebeat/filebeat.yml)^}
+FILEBEAT=${FILEBEAT:-$(command -v filebeat || true)}
+PORT=${PORT:-15044}
+WORK_DIR=$(mktemp -d)
+
+if [ -z "$FILEBEAT" ]; then
+    echo "filebeat binary not found - set FILEBEAT=/path/to/filebeat" >&2
+    exit 1
+fi
+
+SINK_PID=""
+trap '[ -n "$SINK_PID" ] && kill "$SINK_PID" 2>/dev/null; rm -rf "$WORK_DIR"' EXIT
+
+# Corpus au format logback de l'application : par requête une ligne d'accès et une ligne métier,
+# une requête sur 50 en erreur (pile d'exception dans application.log et error.log)
+generate_corpus() {
+    mkdir -p "$WORK_DIR/logs"
+    python3 - "$WORK_DIR/logs" "$REQUESTS" <<'EOF'
+import json, sys
+out, requests = sys.argv[1], int(sys.argv[2])
+stack = "java.lang.IllegalStateException: Payment gateway timeout\n" + "".join(
+    "\tat com.example.ecommerce.service.OrderService.processPayment(OrderService.java:%d)\n" % (100 + i) for i in range(12))
+meta = {"application": "ecommerce-demo", "environment": "development"}
+with open(out + "/access.log", "w") as access, open(out + "/business.log", "w") as business, \
+     open(out + "/error.log", "w") as error, open(out + "/application.log", "w") as app:
+    for i in range(requests):
+        ts = "2025-08-05T19:%02d:%02d.%03d000000+02:00" % (i // 60000 % 60, i // 1000 % 60, i % 1000)
+        access.write(json.dumps({"@timestamp": ts, "level": "INFO", "logger_name": "ACCESS_LOGGER",
+                                 "message": "GET /api/products/%d - 200 - 3ms - Product found" % (i % 500),
+                                 "log_type": "access", **meta}) + "\n")
+        business.write(json.dumps({"@timestamp": ts, "level": "INFO",
+                                   "message": "{{\"event_type\":\"product_viewed\",\"product_id\":%d}}" % (i % 500),
+                                   "log_type": "business", **meta}) + "\n")
+        app.write("2025-08-05 19:%02d:%02d.%03d  INFO http-nio-8080-exec-%d c.e.e.service.ProductService : Product %d loaded\n"
+                  % (i // 60000 % 60, i // 1000 % 60, i % 1000, i % 10, i % 500))
+        if i % 50 == 0:
+            app.write("2025-08-05 19:%02d:%02d.%03d ERROR http-nio-8080-exec-%d c.e.e.service.OrderService : Payment failed\n%s"
+                      % (i // 60000 % 60, i // 1000 % 60, i % 1000, i % 10, stack))
+            error.write(json.dumps({"@timestamp": ts, "level": "ERROR", "logger_name": "ERROR_LOGGER",
+                                    "message": "Payment failed for order %d" % i, "stack_trace": stack,
+                                    "log_type": "error", **meta}) + "\n")
+EOF
+}
+
+# Adapte une configuration au banc : corpus local, sortie vers le sink, registre et logs dans WORK_DIR
+prepare_config() {
+    local source=$1 target=$2
+    sed -e "s#/var/log/app#$WORK_DIR/logs#g" \
+        -e "s#\"logstash:5044\"#\"127.0.0.1:$PORT\"#" \
+        -e "s#/var/log/filebeat#$WORK_DIR/filebeat-logs#" \
+        "$source" > "$target"
+    chmod go-w "$target"
+}
+
+cpu_ticks() {
+    awk '{print $14 + $15}' "/proc/$1/stat"
+}
+
+stat_value() {
+    python3 -c "import json,sys; print(json.load(open(sys.argv[1]))[sys.argv[2]])" "$WORK_DIR/stats.json" "$1"
+}
+
+run_config() {
+    local name=$1 config=$2 data_dir="$WORK_DIR/data-$1" pid start ticks elapsed previous current stable
+    rm -f "$WORK_DIR/stats.json"
+    python3 "$ROOT_DIR/benchmarks/lumberjack-sink.py" "$PORT" "$WORK_DIR/stats.json" &
+    SINK_PID=$!
+    until [ -f "$WORK_DIR/stats.json" ]; do sleep 0.1; done
+
+    start=$(date +%s%N)
+    "$FILEBEAT" -c "$config" --path.data "$data_dir" --path.home "$(dirname "$FILEBEAT")" \
+        --strict.perms=false > "$WORK_DIR/filebeat-$name.out" 2>&1 &
+    pid=$!
+
+    # Fin de l'ingestion : compteur du sink stable pendant 3 s
+    previous=-1 stable=0
+    while [ "$stable" -lt 15 ]; do
+        sleep 0.2
+        current=$(stat_value events)
+        if [ "$current" = "$previous" ] && [ "$current" != "0" ]; then
+            stable=$((stable + 1))
+        else
+            stable=0
+        fi
+        previous=$current
+    done
+    ticks=$(cpu_ticks "$pid")
+    elapsed=$(( ($(date +%s%N) - start) / 1000000 - 3000 ))
+    kill "$pid"; wait "$pid" 2>/dev/null || true
+
+    printf "%-8s %10s %12s %10s %8s %8s %10s %8s\n" "$name" "$(stat_value events)" "$(stat_value bytes)" \
+        "$(stat_value raw_json_messages)" "$(stat_value merged_json_lines)" "$(stat_value decode_errors)" \
+        "$(awk -v t="$ticks" -v hz="$(getconf CLK_TCK)" 'BEGIN {printf "%.0f", t * 1000 / hz}')" "$elapsed"
+    echo "         by log_type: $(stat_value by_log_type)"
+
+    kill "$SINK_PID"; wait "$SINK_PID" 2>/dev/null || true
+    SINK_PID=""
+}
+
+generate_corpus
+git -C "$ROOT_DIR" show "$OLD_REF:filebeat/filebeat.yml" > "$WORK_DIR/old-source.yml"
+prepare_config "$WORK_DIR/old-source.yml" "$WORK_DIR/old.yml"
+prepare_config "$ROOT_DIR/filebeat/filebeat.yml" "$WORK_DIR/new.yml"
+
+echo "Corpus: $REQUESTS requests, $(cat "$WORK_DIR"/logs/*.log | wc -l) lines in $(du -sh "$WORK_DIR/logs" | cut -f1)"
+printf "%-8s %10s %12s %10s %8s %8s %10s %8s\n" config events bytes raw_json merged errors cpu_ms wall_ms
+run_config old "$WORK_DIR/old.yml"
+run_config new "$WORK_DIR/new.yml"
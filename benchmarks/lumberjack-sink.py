@@ -0,0 +1,123 @@
+#!/usr/bin/env python3
+"""Logstash de substitution pour les bancs d'essai Filebeat.
+
+Parle le protocole Lumberjack v2 (celui de l'input beats, port 5044) : lit les fenêtres,
+décompresse, acquitte, et compte les événements reçus. Les compteurs sont réécrits dans
+le fichier de stats (JSON) toutes les 200 ms.
+
+Usage : lumberjack-sink.py <port> <stats.json>
+"""
+import json
+import os
+import socketserver
+import struct
+import sys
+import threading
+import time
+import zlib
+
+stats = {"events": 0, "bytes": 0, "by_log_type": {}, "raw_json_messages": 0,
+         "merged_json_lines": 0, "decode_errors": 0, "last_event_at": 0.0}
+lock = threading.Lock()
+
+
+def read_exact(stream, size):
+    data = stream.read(size)
+    if len(data) < size:
+        raise EOFError
+    return data
+
+
+def account(payload):
+    event = json.loads(payload)
+    log_type = event.get("log_type") or event.get("fields", {}).get("log_type") or "unknown"
+    message = event.get("message") or ""
+    with lock:
+        stats["events"] += 1
+        stats["bytes"] += len(payload)
+        stats["by_log_type"][log_type] = stats["by_log_type"].get(log_type, 0) + 1
+        # Ligne JSON restée sous forme de chaîne : Logstash devra la parser
+        if message.startswith("{"):
+            stats["raw_json_messages"] += 1
+            # Plusieurs lignes JSON fusionnées par un multiline inadapté
+            if "\n{" in message:
+                stats["merged_json_lines"] += 1
+        if "error" in event and isinstance(event["error"], dict) and "message" in event["error"]:
+            stats["decode_errors"] += 1
+        stats["last_event_at"] = time.time()
+
+
+def read_frames(stream, handle):
+    """Lit des trames jusqu'à la fin du flux ; handle(seq) par événement, handle(None, taille) par fenêtre."""
+    count = 0
+    while True:
+        header = stream.read(2)
+        if len(header) < 2:
+            return count
+        version, frame_type = header[0:1], header[1:2]
+        if version != b"2":
+            raise ValueError("unsupported protocol version %r" % version)
+        if frame_type == b"J":
+            seq, size = struct.unpack(">II", read_exact(stream, 8))
+            account(read_exact(stream, size))
+            count += 1
+            handle(seq)
+        elif frame_type == b"C":
+            (size,) = struct.unpack(">I", read_exact(stream, 4))
+            inner = _Buffer(zlib.decompress(read_exact(stream, size)))
+            count += read_frames(inner, handle)
+        elif frame_type == b"W":
+            handle(None, struct.unpack(">I", read_exact(stream, 4))[0])
+        else:
+            raise ValueError("unexpected frame type %r" % frame_type)
+
+
+class _Buffer:
+    def __init__(self, data):
+        self.data = data
+        self.position = 0
+
+    def read(self, size):
+        chunk = self.data[self.position:self.position + size]
+        self.position += len(chunk)
+        return chunk
+
+
+class Handler(socketserver.StreamRequestHandler):
+    def handle(self):
+        window = {"size": 0, "received": 0}
+
+        def on_frame(seq, window_size=None):
+            if window_size is not None:
+                window["size"], window["received"] = window_size, 0
+                return
+            window["received"] += 1
+            # Acquittement de la fenêtre complète : Filebeat peut envoyer le lot suivant
+            if window["received"] == window["size"]:
+                self.wfile.write(b"2A" + struct.pack(">I", seq))
+                self.wfile.flush()
+
+        try:
+            read_frames(self.rfile, on_frame)
+        except (EOFError, ConnectionResetError):
+            pass
+
+
+def dump_stats(path):
+    while True:
+        with lock:
+            snapshot = json.dumps(stats)
+        with open(path + ".tmp", "w") as out:
+            out.write(snapshot)
+        # Renommage atomique : le script appelant ne lit jamais un fichier partiel
+        os.replace(path + ".tmp", path)
+        time.sleep(0.2)
+
+
+if __name__ == "__main__":
+    port, stats_path = int(sys.argv[1]), sys.argv[2]
+    socketserver.ThreadingTCPServer.allow_reuse_address = True
+    server = socketserver.ThreadingTCPServer(("127.0.0.1", port), Handler)
+    server.daemon_threads = True
+    threading.Thread(target=dump_stats, args=(stats_path,), daemon=True).start()
+    server.serve_forever()
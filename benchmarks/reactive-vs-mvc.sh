@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Compare la variante MVC (Tomcat) et la variante reactive (Netty) sur les endpoints de lecture.
+# Pour chaque mode : démarre l'application, charge les données, lance wrk avec N connexions
+# concurrentes puis relève threads JVM, connexions JDBC actives et latences (p50/p99).
+#
+# Aucun résultat de référence n'est publié : le script n'a pas encore été exécuté sur une machine
+# disposant de wrk et de plusieurs cœurs. Les chiffres n'ont de sens que mesurés sur le matériel cible.
+#
+# Prérequis : wrk (https://github.com/wg/wrk), jar construit (mvn package), ulimit -n > CONNECTIONS
+# Usage     : benchmarks/reactive-vs-mvc.sh [connections] [duration]
+
+set -euo pipefail
+
+CONNECTIONS=${1:-10000}
+DURATION=${2:-30s}
+THREADS=${THREADS:-8}
+PORT=${PORT:-8080}
+APP_DIR="$(cd "$(dirname "$0")/../my-ecommerce-app" && pwd)"
+JAR=$(ls "$APP_DIR"/target/ecommerce-elk-demo-*.jar | head -1)
+WORK_DIR=$(mktemp -d)
+BASE="http://localhost:$PORT"
+
+metric() {
+    curl -s "$BASE/actuator/metrics/$1" | sed -n 's/.*"value":\([0-9.E]*\).*/\1/p' | head -1
+}
+
+run_mode() {
+    local mode=$1 profile=$2 accept=$3
+
+    (cd "$WORK_DIR" && java -jar "$JAR" --server.port="$PORT" ${profile:+--spring.profiles.active=$profile} \
+        > "$WORK_DIR/$mode.log" 2>&1) &
+    local pid=$!
+    until curl -sf "$BASE/actuator/health" > /dev/null; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application ($mode) exited before becoming healthy - $WORK_DIR/$mode.log:" >&2
+            cat "$WORK_DIR/$mode.log" >&2
+            exit 1
+        fi
+        sleep 1
+    done
+
+    curl -s -X POST "$BASE/api/demo/init-data" > /dev/null
+    curl -s -X POST "$BASE/api/orders" -H 'Content-Type: application/json' \
+        -d '{"customerEmail":"bench@example.com","customerName":"Bench","productId":1,"quantity":1}' > /dev/null
+
+    echo "=== $mode : GET /api/products/category/Books ($CONNECTIONS connexions, $DURATION)"
+    wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency -H "Accept: $accept" \
+        "$BASE/api/products/category/Books" | grep -E "Latency|50%|99%|Requests/sec|Socket errors" &
+    local wrk_pid=$!
+    sleep 10
+    echo "jvm threads (live)        : $(metric jvm.threads.live)"
+    echo "jdbc connections (active) : $(metric hikaricp.connections.active)"
+    echo "rss (kB)                  : $(grep VmRSS /proc/$pid/status | awk '{print $2}')"
+    wait $wrk_pid
+
+    echo "=== $mode : GET /api/orders/customer/bench@example.com"
+    wrk -t"$THREADS" -c"$CONNECTIONS" -d"$DURATION" --latency -H "Accept: $accept" \
+        "$BASE/api/orders/customer/bench@example.com" | grep -E "Latency|50%|99%|Requests/sec|Socket errors"
+
+    kill $pid
+    wait $pid 2>/dev/null || true
+}
+
+run_mode mvc "" "application/json"
+run_mode reactive reactive "application/x-ndjson"
+
+rm -rf "$WORK_DIR"
@@ -0,0 +1,108 @@
+#!/usr/bin/env bash
+# Mesure les octets alloués par requête sur les endpoints de commande (création, paiement, corps invalide).
+# Pour chaque jar : démarre l'application, réchauffe, puis pour chaque scénario force un GC (jcmd),
+# relève jvm.gc.memory.allocated, envoie N requêtes sur une connexion keep-alive, force un GC et relève
+# à nouveau. L'allocation de fond (tâches planifiées) est mesurée à vide sur la même durée et retranchée.
+#
+# Prérequis : jcmd (JDK), jar construit (mvn package)
+# Usage     : benchmarks/request-allocation.sh [requests] [jar...]
+#             ex. avant/après : construire le jar de chaque révision, puis passer les deux chemins
+
+set -euo pipefail
+
+REQUESTS=${1:-5000}
+shift || true
+PORT=${PORT:-8080}
+APP_DIR="$(cd "$(dirname "$0")/../my-ecommerce-app" && pwd)"
+JARS=("$@")
+if [ ${#JARS[@]} -eq 0 ]; then
+    JARS=("$(ls "$APP_DIR"/target/ecommerce-elk-demo-*.jar | head -1)")
+fi
+BASE="http://localhost:$PORT"
+
+allocated() {
+    jcmd "$1" GC.run > /dev/null
+    sleep 0.5
+    curl -s "$BASE/actuator/metrics/jvm.gc.memory.allocated" | sed -n 's/.*"value":\([0-9.E]*\).*/\1/p' | head -1
+}
+
+# Fichier de configuration curl : N requêtes séparées par "next", même connexion
+requests_file() {
+    local file=$1 method=$2 path=$3 body=$4
+    : > "$file"
+    for i in $(seq 1 "$REQUESTS"); do
+        local n=$(( i % 40 + 1 ))
+        local data=${body//\{i\}/$n}
+        [ "$i" -gt 1 ] && echo next >> "$file"
+        printf 'url = "%s%s"\nrequest = "%s"\nheader = "Content-Type: application/json"\ndata = "%s"\noutput = "/dev/null"\n' \
+            "$BASE" "${path//\{i\}/$n}" "$method" "${data//\"/\\\"}" >> "$file"
+    done
+}
+
+measure() {
+    local pid=$1 name=$2 file=$3
+
+    local before start after elapsed idle_before idle_after
+    before=$(allocated "$pid")
+    start=$(date +%s.%N)
+    curl -s -K "$file" > /dev/null
+    elapsed=$(awk -v s="$start" -v e="$(date +%s.%N)" 'BEGIN { printf "%.2f", e - s }')
+    after=$(allocated "$pid")
+
+    idle_before=$(allocated "$pid")
+    sleep "$elapsed"
+    idle_after=$(allocated "$pid")
+
+    echo "$name" "$before" "$after" "$idle_before" "$idle_after" "$elapsed" | awk -v n="$REQUESTS" '{
+        per_request = (($3 - $2) - ($5 - $4)) / n
+        printf "  %-16s %10.0f bytes/request  (%d requests in %.1fs)\n", $1, per_request, n, $6
+    }'
+}
+
+run_jar() {
+    local jar=$1 work_dir
+    work_dir=$(mktemp -d)
+
+    (cd "$work_dir" && java -jar "$jar" --server.port="$PORT" --app.admission.enabled=false \
+        > "$work_dir/app.log" 2>&1) &
+    local pid=$!
+    trap "kill $pid 2> /dev/null" EXIT
+    until curl -sf "$BASE/actuator/health" > /dev/null; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "Application exited before becoming healthy ($jar) - app.log:" >&2
+            cat "$work_dir/app.log" >&2
+            exit 1
+        fi
+        sleep 1
+    done
+    pid=$(pgrep -f -n "java -jar $jar")
+
+    curl -s -X POST "$BASE/api/demo/init-data" > /dev/null
+    for id in $(seq 1 40); do
+        curl -s -X PUT "$BASE/api/products/$id/stock?stock=1000000" > /dev/null
+    done
+
+    local create="$work_dir/create.curl" payment="$work_dir/payment.curl" invalid="$work_dir/invalid.curl"
+    requests_file "$create" POST "/api/orders" \
+        '{"customerEmail":"bench@example.com","customerName":"Bench","productId":{i},"quantity":1}'
+    requests_file "$payment" POST "/api/orders/{i}/payment" '{"paymentMethod":"CREDIT_CARD"}'
+    requests_file "$invalid" POST "/api/orders" '{"customerEmail":"not-an-email","quantity":0}'
+
+    # Réchauffage JIT sur les mêmes requêtes
+    curl -s -K "$create" > /dev/null
+    curl -s -K "$payment" > /dev/null
+    curl -s -K "$invalid" > /dev/null
+
+    echo "=== $(basename "$jar") ($jar)"
+    measure "$pid" create-order "$create"
+    measure "$pid" payment "$payment"
+    measure "$pid" invalid-body "$invalid"
+
+    kill "$pid"
+    wait 2>/dev/null || true
+    rm -rf "$work_dir"
+}
+
+for jar in "${JARS[@]}"; do
+    run_jar "$(cd "$(dirname "$jar")" && pwd)/$(basename "$jar")"
+done
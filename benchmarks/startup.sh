@@ -0,0 +1,84 @@
+#!/usr/bin/env bash
+# Compare le démarrage à froid du jar exécutable standard et du mode fast-startup (AOT, puis AOT + AppCDS).
+# Pour chaque mode et chaque essai : lance la JVM dans un répertoire vide, mesure le temps jusqu'à la
+# première réponse 200 de GET /api/products (time-to-first-request) et relève la RSS du processus.
+#
+# Prérequis : cd my-ecommerce-app && mvn -Pfast-startup package
+# Usage     : benchmarks/startup.sh [runs]   (STARTUP_TIMEOUT=120 : secondes avant abandon d'un essai)
+
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-8080}
+APP_DIR="$(cd "$(dirname "$0")/../my-ecommerce-app" && pwd)"
+JAR=$(ls "$APP_DIR"/target/ecommerce-elk-demo-*.jar | head -1)
+FAST_DIR="$APP_DIR/target/fast-startup"
+BASE="http://localhost:$PORT"
+# Délai maximal (secondes) pour la première réponse d'un essai
+STARTUP_TIMEOUT=${STARTUP_TIMEOUT:-120}
+
+if [ ! -f "$FAST_DIR/application.jsa" ]; then
+    echo "Missing $FAST_DIR/application.jsa - build with: mvn -Pfast-startup package" >&2
+    exit 1
+fi
+
+if curl -s -o /dev/null "$BASE"; then
+    echo "Port $PORT already in use - stop the running application first" >&2
+    exit 1
+fi
+
+run_once() {
+    local work_dir start pid ttfr rss started deadline
+    work_dir=$(mktemp -d)
+
+    start=$(date +%s%N)
+    (cd "$work_dir" && exec java "$@" --server.port="$PORT" > "$work_dir/app.log" 2>&1) &
+    pid=$!
+    deadline=$(( $(date +%s) + STARTUP_TIMEOUT ))
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "$BASE/api/products")" = "200" ]; do
+        # JVM arrêtée (port pris, archive CDS incompatible, option invalide) ou démarrage trop long
+        if ! kill -0 "$pid" 2>/dev/null || [ "$(date +%s)" -ge "$deadline" ]; then
+            echo "Application did not answer on $BASE/api/products (java $*) - app.log:" >&2
+            cat "$work_dir/app.log" >&2
+            kill "$pid" 2>/dev/null || true
+            wait "$pid" 2>/dev/null || true
+            rm -rf "$work_dir"
+            return 1
+        fi
+        sleep 0.02
+    done
+    ttfr=$(( ($(date +%s%N) - start) / 1000000 ))
+    rss=$(awk '/VmRSS/ {print $2}' "/proc/$pid/status")
+    started=$(sed -n 's/.*Started EcommerceElkDemoApplication in \([0-9.]*\) seconds.*/\1/p' "$work_dir/app.log")
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    rm -rf "$work_dir"
+    echo "$ttfr $rss $started"
+}
+
+# Médiane de chaque colonne sur les essais
+median() {
+    cut -d' ' -f"$1" | sort -n | awk '{ v[NR] = $1 } END { print v[int((NR + 1) / 2)] }'
+}
+
+report() {
+    local mode=$1 results=$2
+    printf "%-12s time-to-first-request %6d ms   rss %5d MB   spring started in %5s s   (median of %d)\n" "$mode" \
+        "$(echo "$results" | median 1)" "$(( $(echo "$results" | median 2) / 1024 ))" \
+        "$(echo "$results" | median 3)" "$RUNS"
+}
+
+run_mode() {
+    local mode=$1
+    shift
+    local results=""
+    for i in $(seq 1 "$RUNS"); do
+        results+="$(run_once "$@")"$'\n'
+    done
+    report "$mode" "${results%$'\n'}"
+}
+
+run_mode jar -jar "$JAR"
+run_mode aot -Dspring.aot.enabled=true -jar "$FAST_DIR/application.jar"
+run_mode aot+appcds -XX:SharedArchiveFile="$FAST_DIR/application.jsa" -Dspring.aot.enabled=true -jar "$FAST_DIR/application.jar"
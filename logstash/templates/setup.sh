@@ -0,0 +1,23 @@
+#!/bin/sh
+# Installe dans Elasticsearch la politique ILM et les templates des data streams logs-ecommerce.*.
+# Lancé une fois par le service logstash-setup avant le démarrage de Logstash ; idempotent.
+set -eu
+
+ES=${ELASTICSEARCH_URL:-http://elasticsearch:9200}
+DIR=$(dirname "$0")
+
+until curl -s -o /dev/null "$ES/_cluster/health?wait_for_status=yellow&timeout=5s"; do
+    echo "Waiting for Elasticsearch at $ES"
+    sleep 2
+done
+
+put() {
+    echo "PUT $1"
+    curl -sSf -X PUT "$ES/$1" -H 'Content-Type: application/json' --data-binary "@$DIR/$2" > /dev/null
+}
+
+put _ilm/policy/ecommerce-logs ecommerce-logs-policy.json
+put _component_template/ecommerce-logs ecommerce-logs-component.json
+for stream in access business error app; do
+    put "_index_template/logs-ecommerce.$stream" "ecommerce-$stream-template.json"
+done
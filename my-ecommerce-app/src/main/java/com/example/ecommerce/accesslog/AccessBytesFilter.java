@@ -0,0 +1,135 @@
+package com.example.ecommerce.accesslog;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+
+/**
+ * Compte les octets du corps écrits par l'application (avant la compression HTTP du conteneur) et
+ * fait compter la ligne d'accès de la requête avec ces octets une fois la réponse écrite : à la sortie
+ * du filtre, ou à la fin du traitement asynchrone.
+ */
+public class AccessBytesFilter extends OncePerRequestFilter {
+
+    private final AccessRollupAppender appender;
+
+    public AccessBytesFilter(AccessRollupAppender appender) {
+        this.appender = appender;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        appender.requestStarted();
+        CountingResponse counting = new CountingResponse(response);
+        try {
+            filterChain.doFilter(request, counting);
+            counting.flushBuffer();
+        } finally {
+            AccessRollupAppender.PendingAccess pending = appender.requestDetached();
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new CountOnComplete(appender, pending, counting));
+            } else {
+                appender.requestCompleted(pending, counting.bytes);
+            }
+        }
+    }
+
+    private record CountOnComplete(AccessRollupAppender appender, AccessRollupAppender.PendingAccess pending,
+                                   CountingResponse counting) implements AsyncListener {
+
+        // Appelé une seule fois, y compris après un dépassement de délai ou une erreur
+        @Override
+        public void onComplete(AsyncEvent event) {
+            appender.requestCompleted(pending, counting.bytes);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Nouveau cycle asynchrone : l'écouteur doit être réenregistré pour être notifié
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private static class CountingResponse extends HttpServletResponseWrapper {
+
+        private volatile long bytes;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream delegate = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        delegate.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        delegate.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        delegate.flush();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return delegate.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        delegate.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            super.flushBuffer();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.example.ecommerce.accesslog;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.AppenderBase;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static net.logstash.logback.argument.StructuredArguments.entries;
+
+/**
+ * Appender logback placé devant ACCESS_FILE sur ACCESS_LOGGER. Les requêtes réussies et rapides
+ * sont comptées par méthode, route et statut au lieu d'être écrites ; flush() écrit un résumé par
+ * route et par intervalle. Les erreurs (statut >= 400), les requêtes lentes et les lignes qui ne
+ * suivent pas le format d'accès sont transmises telles quelles.
+ *
+ * Une ligne écrite sur le thread d'une requête (entre requestStarted et requestDetached) n'est comptée
+ * qu'à la fin de la réponse, avec ses octets, dans l'intervalle alors en cours. Les lignes écrites ailleurs
+ * (fin d'un flux, sur un thread du flux) sont comptées aussitôt, sans octets.
+ */
+public class AccessRollupAppender extends AppenderBase<ILoggingEvent> {
+
+    // Clé MDC du modèle de route (/api/products/{id}), posée par RouteMdcInterceptor
+    public static final String ROUTE_KEY = "route";
+
+    // "GET /api/products/12 - 200 - 3ms - Product found" ; "(stream)" pour les routes réactives
+    private static final Pattern ACCESS_LINE = Pattern.compile("^([A-Z]+) (\\S+)(?: \\(stream\\))? - (\\d{3}) - (\\d+)ms");
+    private static final Pattern NUMERIC_SEGMENT = Pattern.compile("/\\d+(?=/|$)");
+
+    private final Appender<ILoggingEvent> target;
+    private final Logger accessLogger;
+    private final long slowThresholdMillis;
+    private final int maxRoutes;
+
+    // Requête HTTP en cours sur ce thread, posée par AccessBytesFilter
+    private final ThreadLocal<PendingAccess> inProgress = new ThreadLocal<>();
+
+    private Map<String, RouteStats> stats = new HashMap<>();
+    private long intervalStart = System.currentTimeMillis();
+
+    public AccessRollupAppender(Appender<ILoggingEvent> target, Logger accessLogger, long slowThresholdMillis, int maxRoutes) {
+        this.target = target;
+        this.accessLogger = accessLogger;
+        this.slowThresholdMillis = slowThresholdMillis;
+        this.maxRoutes = maxRoutes;
+        setName("ACCESS_ROLLUP");
+    }
+
+    // Appender qui reçoit les résumés et les lignes transmises telles quelles (ACCESS_FILE)
+    public Appender<ILoggingEvent> target() {
+        return target;
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        Matcher line = ACCESS_LINE.matcher(event.getFormattedMessage());
+        if (!line.find()) {
+            target.doAppend(event);
+            return;
+        }
+        int status = Integer.parseInt(line.group(3));
+        long millis = Long.parseLong(line.group(4));
+        if (status >= 400 || millis >= slowThresholdMillis) {
+            target.doAppend(event);
+            return;
+        }
+
+        String route = event.getMDCPropertyMap().get(ROUTE_KEY);
+        if (route == null) {
+            route = routeOf(line.group(2));
+        }
+        // Borne la mémoire si les chemins ne se ramènent pas à un modèle : lignes individuelles au-delà
+        if (!stats.containsKey(keyOf(line.group(1), route, status)) && stats.size() >= maxRoutes) {
+            target.doAppend(event);
+            return;
+        }
+
+        PendingAccess pending = inProgress.get();
+        if (pending != null && pending.method == null) {
+            pending.set(line.group(1), route, status, millis);
+        } else {
+            record(line.group(1), route, status, millis, 0);
+        }
+    }
+
+    // Début d'une requête HTTP sur ce thread
+    public void requestStarted() {
+        inProgress.set(new PendingAccess());
+    }
+
+    // Le thread quitte la requête : la ligne mise de côté, à compter par requestCompleted une fois la réponse écrite
+    PendingAccess requestDetached() {
+        PendingAccess pending = inProgress.get();
+        inProgress.remove();
+        return pending;
+    }
+
+    // Réponse écrite : la ligne de la requête, s'il y en a une, est comptée avec ses octets
+    void requestCompleted(PendingAccess pending, long bytes) {
+        if (pending != null && pending.method != null) {
+            record(pending.method, pending.route, pending.status, pending.millis, bytes);
+        }
+    }
+
+    // Une entrée créée à la fin d'une réponse peut dépasser maxRoutes, au plus du nombre de requêtes en cours
+    private synchronized void record(String method, String route, int status, long millis, long bytes) {
+        RouteStats routeStats = stats.computeIfAbsent(keyOf(method, route, status), key -> new RouteStats(method, route, status));
+        routeStats.record(millis);
+        routeStats.bytes += bytes;
+    }
+
+    private static String keyOf(String method, String route, int status) {
+        return method + ' ' + route + ' ' + status;
+    }
+
+    // Écrit un résumé par route comptée depuis le dernier appel, horodaté au début de l'intervalle
+    public synchronized void flush() {
+        long now = System.currentTimeMillis();
+        long intervalMillis = now - intervalStart;
+        for (RouteStats routeStats : stats.values()) {
+            LoggingEvent summary = new LoggingEvent(Logger.class.getName(), accessLogger, Level.INFO,
+                    "{} {} - {} - {} requests in {}ms (rollup)", null,
+                    new Object[] {routeStats.method, routeStats.route, routeStats.status, routeStats.count, intervalMillis,
+                                  entries(routeStats.toFields(intervalMillis))});
+            summary.setTimeStamp(intervalStart);
+            target.doAppend(summary);
+        }
+        stats = new HashMap<>();
+        intervalStart = now;
+    }
+
+    // Ligne d'accès d'une requête dont la réponse n'est pas encore écrite
+    static final class PendingAccess {
+
+        private String method;
+        private String route;
+        private int status;
+        private long millis;
+
+        private void set(String method, String route, int status, long millis) {
+            this.method = method;
+            this.route = route;
+            this.status = status;
+            this.millis = millis;
+        }
+    }
+
+    // Sans modèle de route (pile réactive) : chemin sans paramètres, identifiants numériques remplacés par {id}
+    static String routeOf(String path) {
+        int query = path.indexOf('?');
+        return NUMERIC_SEGMENT.matcher(query < 0 ? path : path.substring(0, query)).replaceAll("/{id}");
+    }
+}
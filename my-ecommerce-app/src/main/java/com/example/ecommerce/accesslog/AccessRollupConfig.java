@@ -0,0 +1,87 @@
+package com.example.ecommerce.accesslog;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+// Mode résumé d'access.log : l'appender de résumé remplace ACCESS_FILE sur ACCESS_LOGGER et lui transmet ses écritures
+@Configuration
+@ConditionalOnProperty(name = "app.access-rollup.enabled", havingValue = "true")
+public class AccessRollupConfig {
+
+    @Value("${app.access-rollup.slow-threshold:500}")
+    private long slowThresholdMillis;
+
+    @Value("${app.access-rollup.max-routes:500}")
+    private int maxRoutes;
+
+    private AccessRollupAppender appender;
+    private Appender<ILoggingEvent> accessFile;
+
+    // Arrêté dans shutdown(), une fois ACCESS_FILE rebranché
+    @Bean(destroyMethod = "")
+    public AccessRollupAppender accessRollupAppender() {
+        Logger accessLogger = accessLogger();
+        accessFile = accessLogger.getAppender("ACCESS_FILE");
+        if (accessFile == null) {
+            throw new IllegalStateException("ACCESS_FILE appender not attached to ACCESS_LOGGER");
+        }
+
+        appender = new AccessRollupAppender(accessFile, accessLogger, slowThresholdMillis, maxRoutes);
+        appender.setContext(accessLogger.getLoggerContext());
+        appender.start();
+        accessLogger.addAppender(appender);
+        accessLogger.detachAppender(accessFile);
+        return appender;
+    }
+
+    @Scheduled(fixedRateString = "${app.access-rollup.interval:10000}")
+    public void flush() {
+        if (appender != null) {
+            appender.flush();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (appender != null) {
+            Logger accessLogger = accessLogger();
+            accessLogger.addAppender(accessFile);
+            accessLogger.detachAppender(appender);
+            appender.flush();
+            appender.stop();
+        }
+    }
+
+    private static Logger accessLogger() {
+        return ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger("ACCESS_LOGGER");
+    }
+
+    // Pile servlet : modèle de route et taille des réponses ; en réactif, route déduite du chemin et octets non comptés
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    @ConditionalOnProperty(name = "app.access-rollup.enabled", havingValue = "true")
+    static class ServletAccessRollupConfig implements WebMvcConfigurer {
+
+        @Bean
+        public AccessBytesFilter accessBytesFilter(AccessRollupAppender accessRollupAppender) {
+            return new AccessBytesFilter(accessRollupAppender);
+        }
+
+        @Override
+        public void addInterceptors(InterceptorRegistry registry) {
+            registry.addInterceptor(new RouteMdcInterceptor());
+        }
+    }
+}
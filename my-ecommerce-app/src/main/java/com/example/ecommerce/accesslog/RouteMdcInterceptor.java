@@ -0,0 +1,26 @@
+package com.example.ecommerce.accesslog;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.MDC;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+// Modèle de route du contrôleur (/api/products/{id}) dans le MDC pendant la requête : clé des résumés
+// d'accès, et champ route des lignes individuelles
+public class RouteMdcInterceptor implements HandlerInterceptor {
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        if (pattern != null) {
+            MDC.put(AccessRollupAppender.ROUTE_KEY, pattern.toString());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        MDC.remove(AccessRollupAppender.ROUTE_KEY);
+    }
+}
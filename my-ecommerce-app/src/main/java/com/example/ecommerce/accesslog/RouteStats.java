@@ -0,0 +1,71 @@
+package com.example.ecommerce.accesslog;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Requêtes réussies d'une route (méthode, modèle de chemin, statut) sur l'intervalle en cours
+final class RouteStats {
+
+    // Bornes supérieures (ms) des seaux de l'histogramme ; au-delà, seau de débordement représenté par le max
+    static final long[] BUCKET_BOUNDS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000, 10000};
+
+    final String method;
+    final String route;
+    final int status;
+
+    long count;
+    long bytes;
+    long sumMillis;
+    long minMillis = Long.MAX_VALUE;
+    long maxMillis;
+    private final long[] buckets = new long[BUCKET_BOUNDS.length + 1];
+
+    RouteStats(String method, String route, int status) {
+        this.method = method;
+        this.route = route;
+        this.status = status;
+    }
+
+    void record(long millis) {
+        count++;
+        sumMillis += millis;
+        minMillis = Math.min(minMillis, millis);
+        maxMillis = Math.max(maxMillis, millis);
+        int bucket = 0;
+        while (bucket < BUCKET_BOUNDS.length && millis > BUCKET_BOUNDS[bucket]) {
+            bucket++;
+        }
+        buckets[bucket]++;
+    }
+
+    /**
+     * Champs du document de résumé, aux mêmes noms que ceux extraits par Logstash des lignes individuelles.
+     * access.latency suit le format du type histogram d'Elasticsearch (values croissantes, counts).
+     */
+    Map<String, Object> toFields(long intervalMillis) {
+        List<Double> values = new ArrayList<>();
+        List<Long> counts = new ArrayList<>();
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] > 0) {
+                values.add((double) (i < BUCKET_BOUNDS.length ? BUCKET_BOUNDS[i] : maxMillis));
+                counts.add(buckets[i]);
+            }
+        }
+
+        Map<String, Object> access = new LinkedHashMap<>();
+        access.put("rollup", true);
+        access.put("interval_ms", intervalMillis);
+        access.put("count", count);
+        access.put("bytes", bytes);
+        access.put("duration_ms", Map.of("min", minMillis, "max", maxMillis, "sum", sumMillis));
+        access.put("latency", Map.of("values", values, "counts", counts));
+
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("http", Map.of("request", Map.of("method", method), "response", Map.of("status_code", status)));
+        fields.put("url", Map.of("route", route));
+        fields.put("access", access);
+        return fields;
+    }
+}
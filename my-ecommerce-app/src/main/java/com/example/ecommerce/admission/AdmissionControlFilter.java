@@ -0,0 +1,189 @@
+package com.example.ecommerce.admission;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.env.Environment;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Contrôle d'admission devant les contrôleurs : une requête n'atteint le contrôleur que si
+ * son groupe de routes est sous sa limite de concurrence adaptative. Sinon elle est rejetée
+ * immédiatement, sans file d'attente : 429 en temps normal, 503 si la latence du groupe
+ * s'est dégradée (serveur saturé), avec Retry-After dans les deux cas.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdmissionControlFilter.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("ACCESS_LOGGER");
+
+    @Autowired
+    private Environment environment;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.admission.retry-after.throttled:1s}")
+    private Duration throttledRetryAfter;
+
+    @Value("${app.admission.retry-after.overloaded:5s}")
+    private Duration overloadedRetryAfter;
+
+    private final Map<RouteGroup, GradientLimiter> limiters = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> throttledCounters = new EnumMap<>(RouteGroup.class);
+    private final Map<RouteGroup, Counter> overloadedCounters = new EnumMap<>(RouteGroup.class);
+
+    @PostConstruct
+    void createLimiters() {
+        double tolerance = environment.getProperty("app.admission.tolerance", Double.class, 1.5);
+        double smoothing = environment.getProperty("app.admission.smoothing", Double.class, 0.2);
+        int windowSamples = environment.getProperty("app.admission.window-samples", Integer.class, 20);
+
+        for (RouteGroup group : RouteGroup.values()) {
+            String prefix = "app.admission.groups." + group.propertyName() + ".";
+            GradientLimiter limiter = new GradientLimiter(group.propertyName(),
+                    environment.getProperty(prefix + "initial-limit", Integer.class, 20),
+                    environment.getProperty(prefix + "min-limit", Integer.class, 4),
+                    environment.getProperty(prefix + "max-limit", Integer.class, 200),
+                    tolerance, smoothing, windowSamples);
+            limiters.put(group, limiter);
+            registerMetrics(group, limiter);
+        }
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        RouteGroup group = RouteGroup.of(request.getMethod(), request.getRequestURI());
+        if (group == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        GradientLimiter limiter = limiters.get(group);
+        if (!limiter.tryAcquire()) {
+            reject(request, response, group, limiter);
+            return;
+        }
+
+        long startTime = System.nanoTime();
+        AtomicBoolean released = new AtomicBoolean();
+        Runnable release = () -> {
+            if (released.compareAndSet(false, true)) {
+                limiter.release(System.nanoTime() - startTime);
+            }
+        };
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            // Réponse asynchrone (Flux NDJSON, StreamingResponseBody) : le permis est gardé jusqu'à la fin du flux
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete(release));
+            } else {
+                release.run();
+            }
+        }
+    }
+
+    private record ReleaseOnComplete(Runnable release) implements AsyncListener {
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release.run();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // Nouveau cycle asynchrone : l'écouteur doit être réenregistré pour être notifié
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, RouteGroup group,
+                        GradientLimiter limiter) throws IOException {
+        boolean overloaded = limiter.overloaded();
+        HttpStatus status = overloaded ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.TOO_MANY_REQUESTS;
+        Duration retryAfter = overloaded ? overloadedRetryAfter : throttledRetryAfter;
+        (overloaded ? overloadedCounters : throttledCounters).get(group).increment();
+
+        response.setStatus(status.value());
+        response.setHeader("Retry-After", String.valueOf(Math.max(1, retryAfter.toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + (overloaded ? "Service overloaded" : "Too many concurrent requests")
+                                   + "\",\"group\":\"" + group.propertyName() + "\"}");
+
+        accessLogger.warn("{} {} - {} - 0ms - Rejected: {} limit {} reached ({} in flight)", request.getMethod(),
+                        request.getRequestURI(), status.value(), group.propertyName(), limiter.limit(), limiter.inFlight());
+        if (logger.isDebugEnabled()) {
+            logger.debug("Admission rejected for {}: short RTT {}ms, long RTT {}ms", group.propertyName(),
+                       limiter.shortRttMillis(), limiter.longRttMillis());
+        }
+    }
+
+    private void registerMetrics(RouteGroup group, GradientLimiter limiter) {
+        String name = group.propertyName();
+        Gauge.builder("admission.limit", limiter, GradientLimiter::limit)
+                .description("Current adaptive concurrency limit")
+                .tag("group", name)
+                .register(meterRegistry);
+        Gauge.builder("admission.inflight", limiter, GradientLimiter::inFlight)
+                .tag("group", name)
+                .register(meterRegistry);
+        Gauge.builder("admission.latency.short", limiter, GradientLimiter::shortRttMillis)
+                .description("Average latency of the last sample window")
+                .baseUnit("milliseconds")
+                .tag("group", name)
+                .register(meterRegistry);
+        Gauge.builder("admission.latency.long", limiter, GradientLimiter::longRttMillis)
+                .description("Long-term latency baseline")
+                .baseUnit("milliseconds")
+                .tag("group", name)
+                .register(meterRegistry);
+        throttledCounters.put(group, Counter.builder("admission.rejected")
+                .tag("group", name)
+                .tag("status", "429")
+                .register(meterRegistry));
+        overloadedCounters.put(group, Counter.builder("admission.rejected")
+                .tag("group", name)
+                .tag("status", "503")
+                .register(meterRegistry));
+    }
+}
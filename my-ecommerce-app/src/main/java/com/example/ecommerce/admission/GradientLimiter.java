@@ -0,0 +1,122 @@
+package com.example.ecommerce.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limite de concurrence adaptative (algorithme « gradient ») : la latence récente (courte)
+ * est comparée à une moyenne longue. Si elle se dégrade, la limite baisse proportionnellement ;
+ * sinon elle remonte d'une marge de file d'attente (racine de la limite).
+ *
+ * L'admission est un simple compteur atomique ; la mise à jour de la limite se fait une fois
+ * par fenêtre d'échantillons, sous un verrou court.
+ */
+public class GradientLimiter {
+
+    private final String name;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int windowSamples;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double limit;
+
+    // Fenêtre d'échantillons et moyennes, protégées par le verrou de l'instance
+    private long windowRttSum;
+    private int windowCount;
+    private int windowMaxInFlight;
+    private volatile double shortRttNanos;
+    private volatile double longRttNanos;
+
+    public GradientLimiter(String name, int initialLimit, int minLimit, int maxLimit,
+                           double tolerance, double smoothing, int windowSamples) {
+        this.name = name;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.windowSamples = windowSamples;
+        this.limit = initialLimit;
+    }
+
+    public boolean tryAcquire() {
+        if (inFlight.incrementAndGet() > (int) limit) {
+            inFlight.decrementAndGet();
+            rejected.incrementAndGet();
+            return false;
+        }
+        return true;
+    }
+
+    // Appelé à la fin de chaque requête admise, avec sa durée et la concurrence observée
+    public void release(long rttNanos) {
+        int inFlightAtRelease = inFlight.getAndDecrement();
+        synchronized (this) {
+            windowRttSum += rttNanos;
+            windowCount++;
+            windowMaxInFlight = Math.max(windowMaxInFlight, inFlightAtRelease);
+            if (windowCount >= windowSamples) {
+                update(windowRttSum / (double) windowCount, windowMaxInFlight);
+                windowRttSum = 0;
+                windowCount = 0;
+                windowMaxInFlight = 0;
+            }
+        }
+    }
+
+    private void update(double rtt, int maxInFlight) {
+        shortRttNanos = rtt;
+        double longRtt = longRttNanos == 0 ? rtt : longRttNanos * 0.95 + rtt * 0.05;
+        // Retour à la normale après une longue surcharge : la référence, gonflée par la surcharge, redescend
+        // plus vite que le lissage à 5 % pour que la limite puisse regrossir. Dans l'autre sens (dégradation
+        // durable), la référence suit à 5 % par fenêtre et la limite reste basse tant que la nouvelle latence
+        // n'est pas devenue la norme : c'est la protection recherchée
+        if (longRtt / rtt > 2) {
+            longRtt *= 0.9;
+        }
+        longRttNanos = longRtt;
+
+        // Trafic trop faible pour juger la limite : on ne la fait pas grossir sans preuve
+        if (maxInFlight < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / rtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public int limit() {
+        return (int) limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    public long rejected() {
+        return rejected.get();
+    }
+
+    public double shortRttMillis() {
+        return shortRttNanos / 1_000_000;
+    }
+
+    public double longRttMillis() {
+        return longRttNanos / 1_000_000;
+    }
+
+    // Latence récente nettement dégradée : le serveur lui-même est saturé
+    public boolean overloaded() {
+        double longRtt = longRttNanos;
+        return longRtt > 0 && shortRttNanos > longRtt * tolerance * 2;
+    }
+}
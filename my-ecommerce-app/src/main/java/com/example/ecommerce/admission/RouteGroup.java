@@ -0,0 +1,35 @@
+package com.example.ecommerce.admission;
+
+// Cloisons (bulkheads) : chaque groupe de routes a son propre limiteur,
+// une simulation ou une rafale d'écritures ne consomme pas la capacité des lectures
+public enum RouteGroup {
+
+    READS("reads"),
+    WRITES("writes"),
+    DEMO("demo");
+
+    private final String propertyName;
+
+    RouteGroup(String propertyName) {
+        this.propertyName = propertyName;
+    }
+
+    public String propertyName() {
+        return propertyName;
+    }
+
+    // null : route non soumise au contrôle d'admission (actuator, analytics, outbox...).
+    // Les commandes d'injection de pannes y échappent aussi : lever une panne doit passer pendant une surcharge
+    public static RouteGroup of(String method, String path) {
+        if (path.startsWith("/api/demo/faults")) {
+            return null;
+        }
+        if (path.startsWith("/api/demo/")) {
+            return DEMO;
+        }
+        if (path.startsWith("/api/products") || path.startsWith("/api/orders")) {
+            return "GET".equals(method) || "HEAD".equals(method) ? READS : WRITES;
+        }
+        return null;
+    }
+}
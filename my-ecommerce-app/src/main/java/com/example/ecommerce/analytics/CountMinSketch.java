@@ -0,0 +1,50 @@
+package com.example.ecommerce.analytics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-Min sketch sans verrou : depth lignes de width compteurs atomiques.
+ * L'estimation ne sous-estime jamais ; la surestimation est bornée par total / width.
+ */
+final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final AtomicLongArray counters;
+
+    CountMinSketch(int width, int depth) {
+        this.width = width;
+        this.depth = depth;
+        this.counters = new AtomicLongArray(width * depth);
+    }
+
+    long add(long hash, long count) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            long value = counters.addAndGet(index(hash, row), count);
+            estimate = Math.min(estimate, value);
+        }
+        return estimate;
+    }
+
+    long estimate(long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    void clear() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, 0);
+        }
+    }
+
+    private int index(long hash, int row) {
+        // Double hachage : h1 + row * h2 donne depth fonctions indépendantes
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        return row * width + Math.floorMod(h1 + row * h2, width);
+    }
+}
@@ -0,0 +1,25 @@
+package com.example.ecommerce.analytics;
+
+// Hachage 64 bits des clés (FNV-1a puis mélange final de MurmurHash3)
+public final class Hashing {
+
+    private Hashing() {}
+
+    public static long hash64(String key) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < key.length(); i++) {
+            hash ^= key.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
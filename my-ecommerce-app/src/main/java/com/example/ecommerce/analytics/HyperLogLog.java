@@ -0,0 +1,68 @@
+package com.example.ecommerce.analytics;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * HyperLogLog à 2^precision registres (précision 12 par défaut : 4096 registres, erreur type ~1,6 %).
+ * Mise à jour sans verrou par CAS sur le registre.
+ */
+final class HyperLogLog {
+
+    private final int precision;
+    private final int registerCount;
+    private final AtomicIntegerArray registers;
+
+    HyperLogLog(int precision) {
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        this.registers = new AtomicIntegerArray(registerCount);
+    }
+
+    void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        int current;
+        while ((current = registers.get(index)) < rank) {
+            if (registers.compareAndSet(index, current, rank)) {
+                return;
+            }
+        }
+    }
+
+    // Union avec d'autres fenêtres : maximum registre par registre
+    void maxInto(int[] merged) {
+        for (int i = 0; i < registerCount; i++) {
+            merged[i] = Math.max(merged[i], registers.get(i));
+        }
+    }
+
+    int registerCount() {
+        return registerCount;
+    }
+
+    void clear() {
+        for (int i = 0; i < registerCount; i++) {
+            registers.set(i, 0);
+        }
+    }
+
+    static long estimate(int[] registers) {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (int register : registers) {
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+
+        // Petites cardinalités : comptage linéaire, plus précis
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+}
@@ -0,0 +1,269 @@
+package com.example.ecommerce.analytics;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Analytique en continu des événements produits, recherches et visiteurs.
+ *
+ * Un anneau de fenêtres d'une minute (app.analytics.window-minutes au maximum) contient
+ * chacune un Count-Min + candidats top-K par dimension, un HyperLogLog des IP et des LongAdder.
+ * L'écriture est sans verrou hors changement de minute ; la mémoire est fixe quel que soit le trafic.
+ *
+ * Les minutes terminées ne changent plus : leur agrégat est calculé une fois par minute et par
+ * taille de fenêtre, puis combiné à la minute courante. Une requête ne parcourt donc qu'une fenêtre.
+ */
+@Component
+public class StreamAnalytics {
+
+    public record RankedItem(String key, long count) {}
+
+    public record WindowCounts(int minutes, long productViews, long searches, long visitorEvents) {}
+
+    private record ClosedTopK(long endMinute, Map<String, Long> counts) {}
+
+    private record ClosedDistinct(long endMinute, int[] registers) {}
+
+    private final WindowBucket[] buckets;
+    private final int candidates;
+
+    private final Map<Integer, ClosedTopK> closedProducts = new ConcurrentHashMap<>();
+    private final Map<Integer, ClosedTopK> closedSearches = new ConcurrentHashMap<>();
+    private final Map<Integer, ClosedDistinct> closedVisitors = new ConcurrentHashMap<>();
+
+    public StreamAnalytics(@Value("${app.analytics.window-minutes:60}") int windowMinutes,
+                           @Value("${app.analytics.sketch-width:2048}") int sketchWidth,
+                           @Value("${app.analytics.sketch-depth:4}") int sketchDepth,
+                           @Value("${app.analytics.top-k-candidates:64}") int candidates,
+                           @Value("${app.analytics.hll-precision:12}") int hllPrecision) {
+        this.candidates = candidates;
+        this.buckets = new WindowBucket[windowMinutes];
+        for (int i = 0; i < windowMinutes; i++) {
+            buckets[i] = new WindowBucket(sketchWidth, sketchDepth, candidates, hllPrecision);
+        }
+    }
+
+    public int windowMinutes() {
+        return buckets.length;
+    }
+
+    public int maxTopK() {
+        return candidates;
+    }
+
+    // --- Alimentation ---
+
+    public void recordProductView(Long productId) {
+        WindowBucket bucket = current();
+        String key = String.valueOf(productId);
+        bucket.topProducts.offer(key, bucket.productViews.add(Hashing.hash64(key), 1));
+        bucket.productViewCount.increment();
+    }
+
+    public void recordSearch(String query) {
+        if (query == null || query.isBlank()) {
+            return;
+        }
+        WindowBucket bucket = current();
+        String key = query.trim().toLowerCase();
+        bucket.topSearches.offer(key, bucket.searches.add(Hashing.hash64(key), 1));
+        bucket.searchCount.increment();
+    }
+
+    public void recordVisitor(String userIp) {
+        if (userIp == null) {
+            return;
+        }
+        WindowBucket bucket = current();
+        bucket.visitors.add(Hashing.hash64(userIp));
+        bucket.visitorEventCount.increment();
+    }
+
+    // --- Requêtes ---
+
+    public List<RankedItem> topProducts(int minutes, int k) {
+        return topK(minutes, k, closedProducts, bucket -> bucket.productViews, bucket -> bucket.topProducts);
+    }
+
+    public List<RankedItem> topSearches(int minutes, int k) {
+        return topK(minutes, k, closedSearches, bucket -> bucket.searches, bucket -> bucket.topSearches);
+    }
+
+    // Fenêtre glissante : les N dernières minutes, minute courante comprise
+    public long uniqueVisitors(int minutes) {
+        minutes = clamp(minutes);
+        long now = currentMinute();
+        int[] registers = closedVisitors(minutes, now).registers().clone();
+
+        WindowBucket bucket = buckets[slot(now)];
+        if (bucket.minute == now) {
+            bucket.visitors.maxInto(registers);
+        }
+        return HyperLogLog.estimate(registers);
+    }
+
+    // Fenêtre fixe : depuis le début de l'heure civile (UTC) en cours
+    public long uniqueVisitorsThisHour() {
+        return uniqueVisitors(minutesSinceHourStart());
+    }
+
+    public int minutesSinceHourStart() {
+        return (int) (currentMinute() % 60) + 1;
+    }
+
+    public WindowCounts counts(int minutes) {
+        minutes = clamp(minutes);
+        long now = currentMinute();
+        long views = 0;
+        long searchCount = 0;
+        long visitorEvents = 0;
+        for (WindowBucket bucket : buckets) {
+            if (inWindow(bucket.minute, now - minutes + 1, now)) {
+                views += bucket.productViewCount.sum();
+                searchCount += bucket.searchCount.sum();
+                visitorEvents += bucket.visitorEventCount.sum();
+            }
+        }
+        return new WindowCounts(minutes, views, searchCount, visitorEvents);
+    }
+
+    public Instant windowStart(int minutes) {
+        return Instant.ofEpochSecond((currentMinute() - clamp(minutes) + 1) * 60);
+    }
+
+    private List<RankedItem> topK(int minutes, int k, Map<Integer, ClosedTopK> cache,
+                                  Function<WindowBucket, CountMinSketch> sketch,
+                                  Function<WindowBucket, TopKCandidates> topCandidates) {
+        minutes = clamp(minutes);
+        k = Math.max(1, Math.min(k, candidates));
+        long now = currentMinute();
+        long from = now - minutes + 1;
+
+        ClosedTopK closed = cachedTopK(cache, minutes, now, from, sketch, topCandidates);
+        WindowBucket bucket = buckets[slot(now)];
+        boolean currentValid = bucket.minute == now;
+
+        Map<String, Long> totals = new HashMap<>(closed.counts());
+        if (currentValid) {
+            for (String key : topCandidates.apply(bucket).keys()) {
+                totals.computeIfAbsent(key, missing -> closedEstimate(missing, from, now, sketch));
+            }
+        }
+
+        // Tas min de taille k : O(n log k) sur les candidats
+        PriorityQueue<RankedItem> heap = new PriorityQueue<>((a, b) -> Long.compare(a.count(), b.count()));
+        for (Map.Entry<String, Long> entry : totals.entrySet()) {
+            long count = entry.getValue();
+            if (currentValid) {
+                count += sketch.apply(bucket).estimate(Hashing.hash64(entry.getKey()));
+            }
+            if (count == 0) {
+                continue;
+            }
+            if (heap.size() < k) {
+                heap.add(new RankedItem(entry.getKey(), count));
+            } else if (count > heap.peek().count()) {
+                heap.poll();
+                heap.add(new RankedItem(entry.getKey(), count));
+            }
+        }
+
+        List<RankedItem> ranked = new ArrayList<>(heap);
+        ranked.sort((a, b) -> Long.compare(b.count(), a.count()));
+        return ranked;
+    }
+
+    private ClosedTopK cachedTopK(Map<Integer, ClosedTopK> cache, int minutes, long now, long from,
+                                  Function<WindowBucket, CountMinSketch> sketch,
+                                  Function<WindowBucket, TopKCandidates> topCandidates) {
+        ClosedTopK closed = cache.get(minutes);
+        if (closed != null && closed.endMinute() == now) {
+            return closed;
+        }
+
+        Set<String> keys = new HashSet<>();
+        for (WindowBucket bucket : buckets) {
+            if (inWindow(bucket.minute, from, now - 1)) {
+                keys.addAll(topCandidates.apply(bucket).keys());
+            }
+        }
+        Map<String, Long> counts = new HashMap<>();
+        for (String key : keys) {
+            counts.put(key, closedEstimate(key, from, now, sketch));
+        }
+
+        closed = new ClosedTopK(now, Collections.unmodifiableMap(counts));
+        cache.put(minutes, closed);
+        return closed;
+    }
+
+    // Somme des estimations par minute : reste un majorant, comme l'estimation Count-Min elle-même
+    private long closedEstimate(String key, long from, long now, Function<WindowBucket, CountMinSketch> sketch) {
+        long hash = Hashing.hash64(key);
+        long total = 0;
+        for (WindowBucket bucket : buckets) {
+            if (inWindow(bucket.minute, from, now - 1)) {
+                total += sketch.apply(bucket).estimate(hash);
+            }
+        }
+        return total;
+    }
+
+    private ClosedDistinct closedVisitors(int minutes, long now) {
+        ClosedDistinct closed = closedVisitors.get(minutes);
+        if (closed != null && closed.endMinute() == now) {
+            return closed;
+        }
+
+        int[] registers = new int[buckets[0].visitors.registerCount()];
+        for (WindowBucket bucket : buckets) {
+            if (inWindow(bucket.minute, now - minutes + 1, now - 1)) {
+                bucket.visitors.maxInto(registers);
+            }
+        }
+        closed = new ClosedDistinct(now, registers);
+        closedVisitors.put(minutes, closed);
+        return closed;
+    }
+
+    private WindowBucket current() {
+        long minute = currentMinute();
+        WindowBucket bucket = buckets[slot(minute)];
+        if (bucket.minute != minute) {
+            synchronized (bucket) {
+                if (bucket.minute < minute) {
+                    bucket.reset(minute);
+                }
+            }
+        }
+        return bucket;
+    }
+
+    private int clamp(int minutes) {
+        return Math.max(1, Math.min(minutes, buckets.length));
+    }
+
+    private int slot(long minute) {
+        return (int) (minute % buckets.length);
+    }
+
+    private static boolean inWindow(long minute, long from, long to) {
+        return minute >= from && minute <= to;
+    }
+
+    private static long currentMinute() {
+        return System.currentTimeMillis() / 60_000;
+    }
+}
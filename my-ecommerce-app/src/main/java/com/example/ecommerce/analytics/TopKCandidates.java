@@ -0,0 +1,55 @@
+package com.example.ecommerce.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ensemble borné de clés candidates au top-K d'une fenêtre. Une clé n'entre que si son
+ * estimation Count-Min dépasse le seuil courant ; au-delà de 2 x capacité, on ne garde que
+ * les capacité meilleures et le seuil remonte. La mémoire reste bornée quel que soit le trafic.
+ */
+final class TopKCandidates {
+
+    private final int capacity;
+    private final Map<String, Long> candidates = new ConcurrentHashMap<>();
+    private volatile long threshold;
+
+    TopKCandidates(int capacity) {
+        this.capacity = capacity;
+    }
+
+    void offer(String key, long estimate) {
+        if (estimate <= threshold && !candidates.containsKey(key)) {
+            return;
+        }
+        candidates.merge(key, estimate, Math::max);
+        if (candidates.size() >= 2 * capacity) {
+            prune();
+        }
+    }
+
+    Set<String> keys() {
+        return candidates.keySet();
+    }
+
+    void clear() {
+        candidates.clear();
+        threshold = 0;
+    }
+
+    private synchronized void prune() {
+        if (candidates.size() < 2 * capacity) {
+            return;
+        }
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(candidates.entrySet());
+        entries.sort(Map.Entry.<String, Long>comparingByValue().reversed());
+        long floor = entries.get(capacity - 1).getValue();
+        for (int i = capacity; i < entries.size(); i++) {
+            candidates.remove(entries.get(i).getKey(), entries.get(i).getValue());
+        }
+        threshold = floor;
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.ecommerce.analytics;
+
+import java.util.concurrent.atomic.LongAdder;
+
+// Agrégats d'une minute : réutilisés en anneau, remis à zéro quand la minute change
+final class WindowBucket {
+
+    volatile long minute = -1;
+
+    final CountMinSketch productViews;
+    final CountMinSketch searches;
+    final TopKCandidates topProducts;
+    final TopKCandidates topSearches;
+    final HyperLogLog visitors;
+
+    // LongAdder : une cellule par cœur sous contention, pas de CAS disputé sur un compteur unique
+    final LongAdder productViewCount = new LongAdder();
+    final LongAdder searchCount = new LongAdder();
+    final LongAdder visitorEventCount = new LongAdder();
+
+    WindowBucket(int sketchWidth, int sketchDepth, int candidates, int hllPrecision) {
+        this.productViews = new CountMinSketch(sketchWidth, sketchDepth);
+        this.searches = new CountMinSketch(sketchWidth, sketchDepth);
+        this.topProducts = new TopKCandidates(candidates);
+        this.topSearches = new TopKCandidates(candidates);
+        this.visitors = new HyperLogLog(hllPrecision);
+    }
+
+    void reset(long newMinute) {
+        productViews.clear();
+        searches.clear();
+        topProducts.clear();
+        topSearches.clear();
+        visitors.clear();
+        productViewCount.reset();
+        searchCount.reset();
+        visitorEventCount.reset();
+        minute = newMinute;
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.ecommerce.archive;
+
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Product;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Ligne d'un segment d'archive : l'état final de la commande, catégorie du produit comprise
+public record ArchivedOrder(long id, String customerEmail, String customerName, long productId, String category,
+                            int quantity, BigDecimal totalAmount, String status, LocalDateTime createdAt,
+                            String paymentMethod, String shippingAddress) {
+
+    static ArchivedOrder of(Order order) {
+        return new ArchivedOrder(order.getId(), order.getCustomerEmail(), order.getCustomerName(),
+                                 order.getProduct().getId(), order.getProduct().getCategory(), order.getQuantity(),
+                                 order.getTotalAmount(), order.getStatus(), order.getCreatedAt(),
+                                 order.getPaymentMethod(), order.getShippingAddress());
+    }
+
+    Order toOrder(Product product) {
+        Order order = new Order();
+        order.setId(id);
+        order.setCustomerEmail(customerEmail);
+        order.setCustomerName(customerName);
+        order.setProduct(product);
+        order.setQuantity(quantity);
+        order.setTotalAmount(totalAmount);
+        order.setStatus(status);
+        order.setCreatedAt(createdAt);
+        order.setPaymentMethod(paymentMethod);
+        order.setShippingAddress(shippingAddress);
+        return order;
+    }
+}
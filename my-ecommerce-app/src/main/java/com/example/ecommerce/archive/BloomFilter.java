@@ -0,0 +1,70 @@
+package com.example.ecommerce.archive;
+
+import com.example.ecommerce.analytics.Hashing;
+
+import java.nio.ByteBuffer;
+import java.util.Collection;
+
+// Filtre de Bloom des emails clients d'un segment : ~10 bits par client, 7 fonctions de hachage
+// (double hachage sur un hash 64 bits), environ 1 % de faux positifs et jamais de faux négatif
+final class BloomFilter {
+
+    private static final int BITS_PER_KEY = 10;
+    private static final int HASHES = 7;
+
+    private final long[] bits;
+
+    private BloomFilter(long[] bits) {
+        this.bits = bits;
+    }
+
+    static BloomFilter of(Collection<String> keys) {
+        BloomFilter filter = new BloomFilter(new long[Math.max(1, (keys.size() * BITS_PER_KEY + 63) / 64)]);
+        for (String key : keys) {
+            filter.add(key);
+        }
+        return filter;
+    }
+
+    static BloomFilter fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long[] bits = new long[bytes.length / 8];
+        for (int i = 0; i < bits.length; i++) {
+            bits[i] = buffer.getLong();
+        }
+        return new BloomFilter(bits);
+    }
+
+    byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(bits.length * 8);
+        for (long word : bits) {
+            buffer.putLong(word);
+        }
+        return buffer.array();
+    }
+
+    boolean mightContain(String key) {
+        long hash = Hashing.hash64(key);
+        for (int i = 0; i < HASHES; i++) {
+            long bit = position(hash, i);
+            if ((bits[(int) (bit >>> 6)] & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(String key) {
+        long hash = Hashing.hash64(key);
+        for (int i = 0; i < HASHES; i++) {
+            long bit = position(hash, i);
+            bits[(int) (bit >>> 6)] |= 1L << bit;
+        }
+    }
+
+    private long position(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + (long) i * h2, bits.length * 64L);
+    }
+}
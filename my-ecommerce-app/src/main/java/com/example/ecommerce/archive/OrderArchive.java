@@ -0,0 +1,270 @@
+package com.example.ecommerce.archive;
+
+import com.example.ecommerce.model.ArchiveSegment;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.ArchiveSegmentRepository;
+import com.example.ecommerce.service.ProductCatalog;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Archive froide des commandes : segments NDJSON compressés en gzip, écrits une seule fois
+ * (orders-20250101-20250107-00000000000000001234.ndjson.gz : premier jour, dernier jour, premier id).
+ * Un segment est écrit dans un fichier temporaire, forcé sur disque puis renommé ; il ne fait partie
+ * de l'archive qu'une fois enregistré dans order_archive_segments. Les fichiers non enregistrés
+ * (transaction annulée, arrêt brutal) sont supprimés au démarrage.
+ * La ligne du segment porte sa période, ses statuts et un filtre de Bloom de ses clients : les recherches
+ * par période, statut ou client ne décompressent que les segments qui peuvent contenir une commande.
+ */
+@Component
+public class OrderArchive {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchive.class);
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private ArchiveSegmentRepository segmentRepository;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.archive.directory:archive}")
+    private String directory;
+
+    @PostConstruct
+    void removeOrphans() throws IOException {
+        Path dir = Paths.get(directory);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        Set<String> registered = segmentRepository.findAll().stream()
+                .map(ArchiveSegment::getFileName)
+                .collect(Collectors.toSet());
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "orders-*")) {
+            for (Path file : files) {
+                if (!registered.contains(file.getFileName().toString())) {
+                    Files.delete(file);
+                    logger.warn("Unregistered archive file removed: {}", file.toAbsolutePath());
+                }
+            }
+        }
+        for (String fileName : registered) {
+            if (!Files.exists(dir.resolve(fileName))) {
+                logger.error("Archive segment missing on disk: {}", dir.resolve(fileName).toAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Écrit les commandes (triées par id) dans un nouveau segment et retourne sa description,
+     * à enregistrer par l'appelant dans la transaction qui les supprime de leur shard.
+     */
+    public ArchiveSegment write(List<Order> orders) throws IOException {
+        LocalDate firstDay = orders.get(0).getCreatedAt().toLocalDate();
+        LocalDate lastDay = firstDay;
+        for (Order order : orders) {
+            LocalDate day = order.getCreatedAt().toLocalDate();
+            firstDay = day.isBefore(firstDay) ? day : firstDay;
+            lastDay = day.isAfter(lastDay) ? day : lastDay;
+        }
+        Set<String> statuses = new TreeSet<>();
+        Set<String> customers = new HashSet<>();
+        for (Order order : orders) {
+            statuses.add(order.getStatus());
+            customers.add(order.getCustomerEmail());
+        }
+        long firstId = orders.get(0).getId();
+        long lastId = orders.get(orders.size() - 1).getId();
+
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        String fileName = String.format("orders-%s-%s-%020d.ndjson.gz", DAY.format(firstDay), DAY.format(lastDay), firstId);
+        Path file = dir.resolve(fileName);
+        Path temp = dir.resolve(fileName + ".tmp");
+
+        try (SequenceWriter writer = objectMapper.writerFor(ArchivedOrder.class).withRootValueSeparator("\n")
+                .writeValues(new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), BUFFER_SIZE), BUFFER_SIZE))) {
+            for (Order order : orders) {
+                writer.write(ArchivedOrder.of(order));
+            }
+        }
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE);
+
+        return new ArchiveSegment(fileName, orders.size(), firstId, lastId, firstDay, lastDay, Files.size(file),
+                                  String.join(",", statuses), BloomFilter.of(customers).toBytes());
+    }
+
+    // Segment écrit mais jamais enregistré (transaction d'archivage annulée)
+    public void discard(ArchiveSegment segment) {
+        try {
+            Files.deleteIfExists(Paths.get(directory).resolve(segment.getFileName()));
+        } catch (IOException e) {
+            logger.warn("Could not remove archive file {}: {}", segment.getFileName(), e.getMessage());
+        }
+    }
+
+    /**
+     * Commandes archivées créées entre from et to (null = sans borne) qui satisfont filter,
+     * triées par id. Seuls les segments dont la période chevauche l'intervalle sont décompressés.
+     */
+    public List<Order> find(LocalDate from, LocalDate to, Predicate<ArchivedOrder> filter) {
+        return find(from, to, segment -> true, filter);
+    }
+
+    // Les segments sans ce client (d'après leur filtre de Bloom) ne sont pas décompressés
+    public List<Order> findByCustomer(String customerEmail) {
+        return find(null, null, segment -> mayContainCustomer(segment, customerEmail),
+                    archived -> archived.customerEmail().equals(customerEmail));
+    }
+
+    // Les segments qui n'ont aucune commande dans ce statut ne sont pas décompressés
+    public List<Order> findByStatus(String status) {
+        return find(null, null, segment -> mayContainStatus(segment, status),
+                    archived -> archived.status().equals(status));
+    }
+
+    // Segments écrits avant l'ajout des statuts et du filtre de Bloom (colonnes nulles) : toujours lus
+    static boolean mayContainCustomer(ArchiveSegment segment, String customerEmail) {
+        return segment.getCustomerFilter() == null
+               || BloomFilter.fromBytes(segment.getCustomerFilter()).mightContain(customerEmail);
+    }
+
+    static boolean mayContainStatus(ArchiveSegment segment, String status) {
+        return segment.getStatuses() == null || Arrays.asList(segment.getStatuses().split(",")).contains(status);
+    }
+
+    // Seuls les segments dont la plage [firstOrderId, lastOrderId] contient l'identifiant sont décompressés
+    public Optional<Order> findById(long orderId) {
+        for (ArchiveSegment segment : segmentRepository.findContaining(orderId)) {
+            List<ArchivedOrder> found = new ArrayList<>(1);
+            read(segment, archived -> {
+                if (archived.id() == orderId) {
+                    found.add(archived);
+                }
+            });
+            if (!found.isEmpty()) {
+                return Optional.of(found.get(0).toOrder(product(found.get(0))));
+            }
+        }
+        return Optional.empty();
+    }
+
+    public boolean contains(long orderId) {
+        return findById(orderId).isPresent();
+    }
+
+    public void forEach(LocalDate from, LocalDate to, Consumer<ArchivedOrder> consumer) {
+        forEach(from, to, segment -> true, consumer);
+    }
+
+    private List<Order> find(LocalDate from, LocalDate to, Predicate<ArchiveSegment> segmentFilter,
+                             Predicate<ArchivedOrder> filter) {
+        List<Order> orders = new ArrayList<>();
+        forEach(from, to, segmentFilter, archived -> {
+            if (filter.test(archived)) {
+                orders.add(archived.toOrder(product(archived)));
+            }
+        });
+        return orders;
+    }
+
+    private void forEach(LocalDate from, LocalDate to, Predicate<ArchiveSegment> segmentFilter,
+                         Consumer<ArchivedOrder> consumer) {
+        List<ArchiveSegment> segments = from == null && to == null
+                ? segmentRepository.findAllByOrderByFirstOrderIdAsc()
+                : segmentRepository.findOverlapping(from == null ? LocalDate.EPOCH : from, to == null ? LocalDate.of(9999, 12, 31) : to);
+        for (ArchiveSegment segment : segments) {
+            if (!segmentFilter.test(segment)) {
+                continue;
+            }
+            read(segment, archived -> {
+                LocalDate day = archived.createdAt().toLocalDate();
+                if ((from == null || !day.isBefore(from)) && (to == null || !day.isAfter(to))) {
+                    consumer.accept(archived);
+                }
+            });
+        }
+    }
+
+    public Map<String, Object> status() {
+        List<ArchiveSegment> segments = segmentRepository.findAllByOrderByFirstOrderIdAsc();
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("directory", Paths.get(directory).toAbsolutePath().toString());
+        status.put("segments", segments.size());
+        status.put("orders", segments.stream().mapToLong(ArchiveSegment::getOrders).sum());
+        status.put("bytes", segments.stream().mapToLong(ArchiveSegment::getBytes).sum());
+        status.put("firstDay", segments.stream().map(ArchiveSegment::getFirstDay).min(LocalDate::compareTo).orElse(null));
+        status.put("lastDay", segments.stream().map(ArchiveSegment::getLastDay).max(LocalDate::compareTo).orElse(null));
+        return status;
+    }
+
+    public List<ArchiveSegment> segments() {
+        return segmentRepository.findAllByOrderByFirstOrderIdAsc();
+    }
+
+    private void read(ArchiveSegment segment, Consumer<ArchivedOrder> consumer) {
+        Path file = Paths.get(directory).resolve(segment.getFileName());
+        try (MappingIterator<ArchivedOrder> rows = objectMapper.readerFor(ArchivedOrder.class).readValues(
+                new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE), BUFFER_SIZE))) {
+            while (rows.hasNextValue()) {
+                consumer.accept(rows.nextValue());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read archive segment " + segment.getFileName(), e);
+        }
+    }
+
+    // Produit du catalogue ; à défaut (produit supprimé depuis), la référence conservée dans le segment
+    private Product product(ArchivedOrder archived) {
+        return productCatalog.byId(archived.productId()).orElseGet(() -> {
+            Product product = new Product();
+            product.setId(archived.productId());
+            product.setCategory(archived.category());
+            return product;
+        });
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.ecommerce.archive;
+
+import com.example.ecommerce.model.ArchiveSegment;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.OrderRollup;
+import com.example.ecommerce.repository.ArchiveSegmentRepository;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.repository.OrderRollupRepository;
+import com.example.ecommerce.sharding.OrderShards;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Déplace les commandes terminées plus anciennes que min-age de leur shard vers l'archive froide,
+ * pour que les tables chaudes ne contiennent que les commandes en cours et récentes.
+ * Par lot et par shard, dans une seule transaction : lecture verrouillée, écriture du segment,
+ * cumul des agrégats jour/produit/statut, enregistrement du segment et suppression des commandes.
+ */
+@Component
+public class OrderArchiver {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderArchiver.class);
+    private static final Logger businessLogger = LoggerFactory.getLogger("BUSINESS_LOGGER");
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderRollupRepository rollupRepository;
+
+    @Autowired
+    private ArchiveSegmentRepository segmentRepository;
+
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @Autowired
+    private OrderShards orderShards;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.archive.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.archive.min-age:90d}")
+    private Duration minAge;
+
+    @Value("${app.archive.statuses:DELIVERED,CANCELLED}")
+    private Set<String> statuses;
+
+    @Value("${app.archive.batch-size:5000}")
+    private int batchSize;
+
+    private Counter archivedCounter;
+    private Counter segmentCounter;
+
+    @PostConstruct
+    void registerMetrics() {
+        archivedCounter = Counter.builder("archive.orders.archived")
+                .description("Orders moved from the shards to archive segments")
+                .register(meterRegistry);
+        segmentCounter = Counter.builder("archive.segments.written")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 15 * * * *}")
+    public void scheduledRun() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            archive();
+        } catch (Exception e) {
+            logger.error("Order archival failed: {}", e.getMessage());
+        }
+    }
+
+    // Retourne le nombre de commandes archivées par shard ; rien pendant un rééquilibrage des shards
+    public synchronized Map<Integer, Integer> archive() {
+        Map<Integer, Integer> archived = new LinkedHashMap<>();
+        if (orderShards.layout().rebalancing()) {
+            logger.info("Order archival skipped: shard rebalancing in progress");
+            return archived;
+        }
+
+        long startTime = System.currentTimeMillis();
+        LocalDateTime before = LocalDateTime.now().minus(minAge);
+        for (int shard : orderShards.layout().allShards()) {
+            int total = 0;
+            int count;
+            do {
+                count = orderShards.inShard(shard, false, () -> archiveBatch(before));
+                total += count;
+            } while (count == batchSize);
+            archived.put(shard, total);
+        }
+
+        int total = archived.values().stream().mapToInt(Integer::intValue).sum();
+        if (total > 0) {
+            businessLogger.info("{{\"event_type\":\"orders_archived\",\"orders_count\":{},\"created_before\":\"{}\",\"duration_ms\":{},\"timestamp\":\"{}\"}}",
+                              total, before, System.currentTimeMillis() - startTime, LocalDateTime.now());
+        }
+        return archived;
+    }
+
+    private int archiveBatch(LocalDateTime before) {
+        List<Order> orders = orderRepository.findArchivable(statuses, before, PageRequest.of(0, batchSize));
+        if (orders.isEmpty()) {
+            return 0;
+        }
+
+        ArchiveSegment segment;
+        try {
+            segment = orderArchive.write(orders);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write archive segment", e);
+        }
+        // Le fichier n'est conservé que si la transaction valide aussi la suppression des commandes
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    orderArchive.discard(segment);
+                }
+            }
+        });
+
+        Map<String, OrderRollup> rollups = new HashMap<>();
+        for (Order order : orders) {
+            LocalDate day = order.getCreatedAt().toLocalDate();
+            Long productId = order.getProduct().getId();
+            rollups.computeIfAbsent(day + "|" + productId + "|" + order.getStatus(), key ->
+                    rollupRepository.findByDayAndProductIdAndStatus(day, productId, order.getStatus())
+                            .orElseGet(() -> new OrderRollup(day, productId, order.getProduct().getCategory(), order.getStatus())))
+                    .add(order);
+        }
+        rollupRepository.saveAll(rollups.values());
+        segmentRepository.save(segment);
+        orderRepository.deleteByIdIn(orders.stream().map(Order::getId).toList());
+
+        archivedCounter.increment(orders.size());
+        segmentCounter.increment();
+        logger.info("Archived {} orders into {}", orders.size(), segment.getFileName());
+        return orders.size();
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.ecommerce.config;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.repository.ProductRepository;
+import com.example.ecommerce.sharding.OrderShards;
+import com.example.ecommerce.service.ProductCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Préchauffage exécuté avant que l'application ne soit déclarée prête (readiness) :
+ * charge le catalogue, exécute les requêtes des endpoints les plus sollicités
+ * pour remplir le cache H2, le cache de plans Hibernate et déclencher la compilation JIT.
+ */
+@Component
+@ConditionalOnProperty(name = "app.warmup.enabled", havingValue = "true")
+public class CatalogWarmup implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogWarmup.class);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderShards orderShards;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Value("${app.warmup.iterations:3}")
+    private int iterations;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long startTime = System.currentTimeMillis();
+        int productCount = 0;
+        Set<String> categories = new TreeSet<>();
+
+        try {
+            for (int i = 0; i < iterations; i++) {
+                List<Product> products = productRepository.findAll();
+                productCount = products.size();
+                products.forEach(product -> categories.add(product.getCategory()));
+
+                for (String category : categories) {
+                    productRepository.findByCategory(category);
+                }
+                productRepository.findAvailableProducts();
+                productRepository.findByNameContainingIgnoreCase("a");
+                if (!products.isEmpty()) {
+                    productRepository.findById(products.get(0).getId());
+                }
+
+                // Une session par shard : chaque schéma a ses propres plans de requêtes côté H2
+                orderShards.scatterAll(shard -> {
+                    orderRepository.count();
+                    orderRepository.countConfirmedOrders();
+                    return orderRepository.findByCustomerEmail("warmup@example.com");
+                });
+            }
+
+            // Les listes par catégorie sont servies depuis la mémoire : on les construit dès le démarrage
+            productCatalog.reload();
+
+            long duration = System.currentTimeMillis() - startTime;
+            if (productCount == 0) {
+                logger.info("Warm-up done in {}ms - catalog is empty, call POST /api/demo/init-data to load sample data", duration);
+            } else {
+                logger.info("Warm-up done in {}ms - {} products in {} categories, {} iterations",
+                          duration, productCount, categories.size(), iterations);
+            }
+
+        } catch (Exception e) {
+            // Le préchauffage ne doit jamais empêcher le démarrage
+            logger.warn("Warm-up failed: {}", e.getMessage());
+        }
+    }
+}
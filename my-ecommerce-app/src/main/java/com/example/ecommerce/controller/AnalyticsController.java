@@ -0,0 +1,132 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.analytics.StreamAnalytics;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.service.ProductCatalog;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+// Indicateurs temps réel calculés en mémoire (estimations : Count-Min majore, HyperLogLog ~1,6 %)
+@RestController
+@RequestMapping("/api/analytics")
+@CrossOrigin(origins = "*")
+public class AnalyticsController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AnalyticsController.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("ACCESS_LOGGER");
+
+    @Autowired
+    private StreamAnalytics streamAnalytics;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @GetMapping("/top-products")
+    public ResponseEntity<Map<String, Object>> getTopProducts(@RequestParam(defaultValue = "5") int minutes,
+                                                              @RequestParam(defaultValue = "10") int k) {
+        long startTime = System.nanoTime();
+
+        try {
+            List<Map<String, Object>> products = new ArrayList<>();
+            for (StreamAnalytics.RankedItem item : streamAnalytics.topProducts(minutes, k)) {
+                Map<String, Object> entry = new LinkedHashMap<>();
+                Long productId = Long.valueOf(item.key());
+                entry.put("productId", productId);
+                entry.put("name", productCatalog.byId(productId).map(Product::getName).orElse(null));
+                entry.put("views", item.count());
+                products.add(entry);
+            }
+            Map<String, Object> result = window(minutes, System.nanoTime() - startTime);
+            result.put("products", products);
+
+            accessLogger.info("GET /api/analytics/top-products - 200 - {}ms - {} products returned",
+                            (System.nanoTime() - startTime) / 1_000_000, products.size());
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            long duration = (System.nanoTime() - startTime) / 1_000_000;
+            logger.error("Error computing top products: {}", e.getMessage());
+            accessLogger.error("GET /api/analytics/top-products - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/top-searches")
+    public ResponseEntity<Map<String, Object>> getTopSearches(@RequestParam(defaultValue = "5") int minutes,
+                                                              @RequestParam(defaultValue = "10") int k) {
+        long startTime = System.nanoTime();
+
+        try {
+            List<Map<String, Object>> searches = new ArrayList<>();
+            for (StreamAnalytics.RankedItem item : streamAnalytics.topSearches(minutes, k)) {
+                searches.add(Map.of("query", item.key(), "count", item.count()));
+            }
+            Map<String, Object> result = window(minutes, System.nanoTime() - startTime);
+            result.put("searches", searches);
+
+            accessLogger.info("GET /api/analytics/top-searches - 200 - {}ms - {} queries returned",
+                            (System.nanoTime() - startTime) / 1_000_000, searches.size());
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            long duration = (System.nanoTime() - startTime) / 1_000_000;
+            logger.error("Error computing top searches: {}", e.getMessage());
+            accessLogger.error("GET /api/analytics/top-searches - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // window=hour : fenêtre fixe depuis le début de l'heure en cours, sinon glissante sur minutes
+    @GetMapping("/unique-visitors")
+    public ResponseEntity<Map<String, Object>> getUniqueVisitors(@RequestParam(defaultValue = "60") int minutes,
+                                                                 @RequestParam(required = false) String window) {
+        long startTime = System.nanoTime();
+
+        try {
+            boolean hourly = "hour".equalsIgnoreCase(window);
+            int windowMinutes = hourly ? streamAnalytics.minutesSinceHourStart() : minutes;
+            long visitors = streamAnalytics.uniqueVisitors(windowMinutes);
+
+            Map<String, Object> result = window(windowMinutes, System.nanoTime() - startTime);
+            result.put("window", hourly ? "hour" : "sliding");
+            result.put("uniqueVisitors", visitors);
+
+            accessLogger.info("GET /api/analytics/unique-visitors - 200 - {}ms - {} unique visitors",
+                            (System.nanoTime() - startTime) / 1_000_000, visitors);
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            long duration = (System.nanoTime() - startTime) / 1_000_000;
+            logger.error("Error computing unique visitors: {}", e.getMessage());
+            accessLogger.error("GET /api/analytics/unique-visitors - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/counts")
+    public ResponseEntity<StreamAnalytics.WindowCounts> getCounts(@RequestParam(defaultValue = "5") int minutes) {
+        long startTime = System.nanoTime();
+        StreamAnalytics.WindowCounts counts = streamAnalytics.counts(minutes);
+
+        accessLogger.info("GET /api/analytics/counts - 200 - {}ms - {} product views",
+                        (System.nanoTime() - startTime) / 1_000_000, counts.productViews());
+        return ResponseEntity.ok(counts);
+    }
+
+    private Map<String, Object> window(int minutes, long computeNanos) {
+        int effective = Math.max(1, Math.min(minutes, streamAnalytics.windowMinutes()));
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("minutes", effective);
+        result.put("from", streamAnalytics.windowStart(effective));
+        result.put("computeMicros", computeNanos / 1_000);
+        return result;
+    }
+}
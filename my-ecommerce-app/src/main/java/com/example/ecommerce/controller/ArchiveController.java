@@ -0,0 +1,118 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.archive.OrderArchive;
+import com.example.ecommerce.archive.OrderArchiver;
+import com.example.ecommerce.model.ArchiveSegment;
+import com.example.ecommerce.model.OrderRollup;
+import com.example.ecommerce.repository.OrderRollupRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+// Archive froide des commandes : état, segments, agrégats journaliers et archivage à la demande
+@RestController
+@RequestMapping("/api/archive")
+@CrossOrigin(origins = "*")
+public class ArchiveController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ArchiveController.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("ACCESS_LOGGER");
+
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @Autowired
+    private OrderArchiver orderArchiver;
+
+    @Autowired
+    private OrderRollupRepository rollupRepository;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            Map<String, Object> status = orderArchive.status();
+            long duration = System.currentTimeMillis() - startTime;
+
+            accessLogger.info("GET /api/archive - 200 - {}ms - {} segments, {} orders",
+                            duration, status.get("segments"), status.get("orders"));
+            return ResponseEntity.ok(status);
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error reading archive status: {}", e.getMessage());
+            accessLogger.error("GET /api/archive - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/segments")
+    public ResponseEntity<List<ArchiveSegment>> getSegments() {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            List<ArchiveSegment> segments = orderArchive.segments();
+            long duration = System.currentTimeMillis() - startTime;
+
+            accessLogger.info("GET /api/archive/segments - 200 - {}ms - {} segments returned", duration, segments.size());
+            return ResponseEntity.ok(segments);
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error listing archive segments: {}", e.getMessage());
+            accessLogger.error("GET /api/archive/segments - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // Agrégats par jour, produit et statut des commandes archivées
+    @GetMapping("/rollups")
+    public ResponseEntity<List<OrderRollup>> getRollups(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            List<OrderRollup> rollups = rollupRepository.findByDayBetween(from, to);
+            long duration = System.currentTimeMillis() - startTime;
+
+            accessLogger.info("GET /api/archive/rollups - 200 - {}ms - {} rollups returned", duration, rollups.size());
+            return ResponseEntity.ok(rollups);
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error fetching rollups between {} and {}: {}", from, to, e.getMessage());
+            accessLogger.error("GET /api/archive/rollups - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // Archivage immédiat, sans attendre la tâche planifiée ; résultat par shard
+    @PostMapping("/run")
+    public ResponseEntity<Map<Integer, Integer>> run() {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            Map<Integer, Integer> archived = orderArchiver.archive();
+            long duration = System.currentTimeMillis() - startTime;
+
+            accessLogger.info("POST /api/archive/run - 200 - {}ms - {} orders archived",
+                            duration, archived.values().stream().mapToInt(Integer::intValue).sum());
+            return ResponseEntity.ok(archived);
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error archiving orders: {}", e.getMessage());
+            accessLogger.error("POST /api/archive/run - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
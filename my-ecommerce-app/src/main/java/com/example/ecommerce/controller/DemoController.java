@@ -1,14 +1,26 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.fault.FaultInjector;
+import com.example.ecommerce.fault.FaultScenario;
+import com.example.ecommerce.fault.FaultScenarios;
+import com.example.ecommerce.fault.FaultSeam;
+import com.example.ecommerce.fault.FaultSpec;
+import com.example.ecommerce.fault.PressureGenerator;
+import com.example.ecommerce.fault.ResourcePressure;
 import com.example.ecommerce.service.DataGeneratorService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.Collection;
 import java.util.Map;
 
+// Endpoints de démonstration : instanciés au premier appel, pas au démarrage
+@Lazy
 @RestController
 @RequestMapping("/api/demo")
 @CrossOrigin(origins = "*")
@@ -20,6 +32,15 @@ public class DemoController {
     @Autowired
     private DataGeneratorService dataGeneratorService;
     
+    @Autowired
+    private FaultInjector faultInjector;
+    
+    @Autowired
+    private PressureGenerator pressureGenerator;
+    
+    @Autowired
+    private FaultScenarios faultScenarios;
+    
     @PostMapping("/init-data")
     public ResponseEntity<Map<String, String>> initializeData() {
         long startTime = System.currentTimeMillis();
@@ -89,4 +110,178 @@ public class DemoController {
         accessLogger.info("GET /api/demo/health - 200 - {}ms - Health check OK", duration);
         return ResponseEntity.ok(Map.of("status", "healthy", "timestamp", java.time.LocalDateTime.now().toString()));
     }
+    
+    // Fautes et pression en cours, scénario éventuel
+    @GetMapping("/faults")
+    public ResponseEntity<Map<String, Object>> getFaults() {
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            Map<String, Object> status = faultScenarios.status();
+            long duration = System.currentTimeMillis() - startTime;
+            
+            accessLogger.info("GET /api/demo/faults - 200 - {}ms - Fault status returned", duration);
+            return ResponseEntity.ok(status);
+            
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error reading fault status: {}", e.getMessage());
+            accessLogger.error("GET /api/demo/faults - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    // Latence et erreurs sur un point d'injection : repository, payment ou logging
+    @PutMapping("/faults/{seam}")
+    public ResponseEntity<Map<String, Object>> setFault(@PathVariable String seam, @RequestBody FaultSpec spec) {
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            faultInjector.set(FaultSeam.of(seam), spec);
+            long duration = System.currentTimeMillis() - startTime;
+            
+            accessLogger.info("PUT /api/demo/faults/{} - 200 - {}ms - Fault configured", seam, duration);
+            return ResponseEntity.ok(faultScenarios.status());
+            
+        } catch (IllegalArgumentException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            accessLogger.warn("PUT /api/demo/faults/{} - 400 - {}ms - Error: {}", seam, duration, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            
+        } catch (IllegalStateException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            accessLogger.warn("PUT /api/demo/faults/{} - 409 - {}ms - Error: {}", seam, duration, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+            
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error configuring fault on {}: {}", seam, e.getMessage());
+            accessLogger.error("PUT /api/demo/faults/{} - 500 - {}ms - Error: {}", seam, duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    // CPU, tas, débit d'allocation et connexions JDBC gardées ; remplace la pression précédente
+    @PutMapping("/faults/pressure")
+    public ResponseEntity<Map<String, Object>> setPressure(@RequestBody ResourcePressure pressure) {
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            faultInjector.checkEnabled();
+            pressureGenerator.apply(pressure);
+            long duration = System.currentTimeMillis() - startTime;
+            
+            accessLogger.info("PUT /api/demo/faults/pressure - 200 - {}ms - Resource pressure applied", duration);
+            return ResponseEntity.ok(faultScenarios.status());
+            
+        } catch (IllegalArgumentException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            accessLogger.warn("PUT /api/demo/faults/pressure - 400 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            
+        } catch (IllegalStateException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            accessLogger.warn("PUT /api/demo/faults/pressure - 409 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+            
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error applying resource pressure: {}", e.getMessage());
+            accessLogger.error("PUT /api/demo/faults/pressure - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    // Arrête le scénario en cours, lève toutes les fautes et la pression
+    @DeleteMapping("/faults")
+    public ResponseEntity<Map<String, Object>> clearFaults() {
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            faultScenarios.stop();
+            long duration = System.currentTimeMillis() - startTime;
+            
+            accessLogger.info("DELETE /api/demo/faults - 200 - {}ms - Faults cleared", duration);
+            return ResponseEntity.ok(faultScenarios.status());
+            
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error clearing faults: {}", e.getMessage());
+            accessLogger.error("DELETE /api/demo/faults - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    @GetMapping("/faults/scenarios")
+    public ResponseEntity<Collection<FaultScenario>> getScenarios() {
+        long startTime = System.currentTimeMillis();
+        
+        Collection<FaultScenario> scenarios = faultScenarios.scenarios();
+        long duration = System.currentTimeMillis() - startTime;
+        
+        accessLogger.info("GET /api/demo/faults/scenarios - 200 - {}ms - {} scenarios returned", duration, scenarios.size());
+        return ResponseEntity.ok(scenarios);
+    }
+    
+    // Démarre un scénario prédéfini ; son avancement se suit avec GET /api/demo/faults
+    @PostMapping("/faults/scenarios/{name}")
+    public ResponseEntity<Map<String, Object>> startScenario(@PathVariable String name) {
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            FaultScenario scenario = faultScenarios.start(name);
+            long duration = System.currentTimeMillis() - startTime;
+            
+            accessLogger.info("POST /api/demo/faults/scenarios/{} - 202 - {}ms - Scenario started for {}s", 
+                            name, duration, scenario.durationSeconds());
+            return ResponseEntity.accepted().body(faultScenarios.status());
+            
+        } catch (IllegalArgumentException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            accessLogger.warn("POST /api/demo/faults/scenarios/{} - 400 - {}ms - Error: {}", name, duration, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            
+        } catch (IllegalStateException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            accessLogger.warn("POST /api/demo/faults/scenarios/{} - 409 - {}ms - Error: {}", name, duration, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+            
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error starting fault scenario {}: {}", name, e.getMessage());
+            accessLogger.error("POST /api/demo/faults/scenarios/{} - 500 - {}ms - Error: {}", name, duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    // Démarre un scénario décrit dans le corps de la requête
+    @PostMapping("/faults/scenarios")
+    public ResponseEntity<Map<String, Object>> startCustomScenario(@RequestBody FaultScenario scenario) {
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            faultScenarios.start(scenario);
+            long duration = System.currentTimeMillis() - startTime;
+            
+            accessLogger.info("POST /api/demo/faults/scenarios - 202 - {}ms - Scenario {} started for {}s", 
+                            duration, scenario.name(), scenario.durationSeconds());
+            return ResponseEntity.accepted().body(faultScenarios.status());
+            
+        } catch (IllegalArgumentException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            accessLogger.warn("POST /api/demo/faults/scenarios - 400 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+            
+        } catch (IllegalStateException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            accessLogger.warn("POST /api/demo/faults/scenarios - 409 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+            
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error starting custom fault scenario: {}", e.getMessage());
+            accessLogger.error("POST /api/demo/faults/scenarios - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
 }
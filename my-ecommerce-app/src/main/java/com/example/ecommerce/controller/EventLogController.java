@@ -0,0 +1,138 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.eventlog.EventLogStore;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Relecture des événements métier historiques depuis le journal embarqué
+@RestController
+@RequestMapping("/api/event-log")
+@CrossOrigin(origins = "*")
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "app.event-log.enabled", havingValue = "true", matchIfMissing = true)
+public class EventLogController {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLogController.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("ACCESS_LOGGER");
+
+    private static final int MAX_LIMIT = 100_000;
+    private static final String NEXT_OFFSET = "X-Next-Offset";
+
+    @Autowired
+    private EventLogStore eventLogStore;
+
+    // Flux NDJSON : un événement métier (JSON d'origine) par ligne, au plus limit ; la suite se lit avec
+    // fromOffset = valeur de X-Next-Offset. L'offset de reprise n'est connu qu'en fin de parcours : il est
+    // envoyé en trailer HTTP (réponse chunked, annoncé par l'en-tête Trailer), sans second parcours du journal
+    @GetMapping(value = "/replay", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> replay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "0") long fromOffset,
+            @RequestParam(defaultValue = "10000") int limit,
+            HttpServletResponse servletResponse) {
+        long startTime = System.currentTimeMillis();
+        int max = Math.min(Math.max(limit, 1), MAX_LIMIT);
+        long fromMillis = toMillis(from, Long.MIN_VALUE);
+        long toMillis = toMillis(to, Long.MAX_VALUE);
+
+        // Écrits par le thread du flux, lus par le conteneur à la fin de la réponse
+        AtomicLong last = new AtomicLong(-1);
+        AtomicLong replayed = new AtomicLong();
+        servletResponse.setTrailerFields(() -> replayed.get() == max
+                ? Map.of(NEXT_OFFSET, Long.toString(last.get() + 1))
+                : Map.of());
+
+        StreamingResponseBody body = out -> {
+            BufferedOutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+            WritableByteChannel channel = Channels.newChannel(buffered);
+            try {
+                long count = eventLogStore.replay(fromOffset, fromMillis, toMillis, type, false, max,
+                        record -> {
+                            channel.write(record.payload());
+                            buffered.write('\n');
+                            last.set(record.offset());
+                        });
+                replayed.set(count);
+                buffered.flush();
+                long duration = System.currentTimeMillis() - startTime;
+                accessLogger.info("GET /api/event-log/replay - 200 - {}ms - {} events replayed", duration, count);
+
+            } catch (Exception e) {
+                long duration = System.currentTimeMillis() - startTime;
+                logger.error("Error replaying event log: {}", e.getMessage());
+                accessLogger.error("GET /api/event-log/replay - 500 - {}ms - Error: {}", duration, e.getMessage());
+                throw e;
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).header(HttpHeaders.TRAILER, NEXT_OFFSET).body(body);
+    }
+
+    // Rejoue la plage dans un handler qui se contente de compter : mesure le débit brut du journal
+    @GetMapping("/scan")
+    public ResponseEntity<Map<String, Object>> scan(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String type,
+            @RequestParam(defaultValue = "false") boolean verify) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            AtomicLong bytes = new AtomicLong();
+            long scanStart = System.nanoTime();
+            long count = eventLogStore.replay(toMillis(from, Long.MIN_VALUE), toMillis(to, Long.MAX_VALUE), type, verify,
+                                              record -> bytes.addAndGet(record.payload().remaining()));
+            long elapsedNanos = Math.max(System.nanoTime() - scanStart, 1);
+            long duration = System.currentTimeMillis() - startTime;
+
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("events", count);
+            result.put("payloadBytes", bytes.get());
+            result.put("elapsedMs", elapsedNanos / 1_000_000.0);
+            result.put("eventsPerSecond", (long) (count * 1_000_000_000.0 / elapsedNanos));
+
+            accessLogger.info("GET /api/event-log/scan - 200 - {}ms - {} events scanned", duration, count);
+            return ResponseEntity.ok(result);
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error scanning event log: {}", e.getMessage());
+            accessLogger.error("GET /api/event-log/scan - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<Map<String, Object>> stats() {
+        long startTime = System.currentTimeMillis();
+        Map<String, Object> stats = eventLogStore.stats();
+        long duration = System.currentTimeMillis() - startTime;
+
+        accessLogger.info("GET /api/event-log/stats - 200 - {}ms - {} segments", duration, stats.get("segments"));
+        return ResponseEntity.ok(stats);
+    }
+
+    private static long toMillis(LocalDateTime dateTime, long defaultValue) {
+        return dateTime == null ? defaultValue : dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -1,16 +1,24 @@
 package com.example.ecommerce.controller;
 
+import com.example.ecommerce.dto.CreateOrderRequest;
+import com.example.ecommerce.dto.PaymentRequest;
+import com.example.ecommerce.dto.PaymentResponse;
 import com.example.ecommerce.model.Order;
 import com.example.ecommerce.service.OrderService;
+import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/orders")
@@ -24,16 +32,13 @@ public class OrderController {
     private OrderService orderService;
     
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestBody Map<String, Object> orderRequest) {
+    public ResponseEntity<Order> createOrder(@Valid @RequestBody CreateOrderRequest orderRequest) {
         long startTime = System.currentTimeMillis();
         
         try {
-            String customerEmail = (String) orderRequest.get("customerEmail");
-            String customerName = (String) orderRequest.get("customerName");
-            Long productId = Long.valueOf(orderRequest.get("productId").toString());
-            Integer quantity = Integer.valueOf(orderRequest.get("quantity").toString());
-            
-            Order order = orderService.createOrder(customerEmail, customerName, productId, quantity);
+            String customerEmail = orderRequest.customerEmail();
+            Order order = orderService.createOrder(customerEmail, orderRequest.customerName(),
+                                                   orderRequest.productId(), orderRequest.quantity());
             long duration = System.currentTimeMillis() - startTime;
             
             accessLogger.info("POST /api/orders - 201 - {}ms - Order created: {} for customer: {}", 
@@ -49,11 +54,11 @@ public class OrderController {
     }
     
     @GetMapping
-    public ResponseEntity<List<Order>> getAllOrders() {
+    public ResponseEntity<List<Order>> getAllOrders(@RequestParam(defaultValue = "false") boolean includeArchived) {
         long startTime = System.currentTimeMillis();
         
         try {
-            List<Order> orders = orderService.getAllOrders();
+            List<Order> orders = orderService.getAllOrders(includeArchived);
             long duration = System.currentTimeMillis() - startTime;
             
             accessLogger.info("GET /api/orders - 200 - {}ms - {} orders returned", duration, orders.size());
@@ -67,12 +72,38 @@ public class OrderController {
         }
     }
     
+    @GetMapping("/{id}")
+    public ResponseEntity<Order> getOrderById(@PathVariable Long id,
+                                              @RequestParam(defaultValue = "false") boolean includeArchived) {
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            Optional<Order> order = orderService.getOrderById(id, includeArchived);
+            long duration = System.currentTimeMillis() - startTime;
+            
+            if (order.isPresent()) {
+                accessLogger.info("GET /api/orders/{} - 200 - {}ms - Order found", id, duration);
+                return ResponseEntity.ok(order.get());
+            } else {
+                accessLogger.warn("GET /api/orders/{} - 404 - {}ms - Order not found", id, duration);
+                return ResponseEntity.notFound().build();
+            }
+            
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error fetching order {}: {}", id, e.getMessage());
+            accessLogger.error("GET /api/orders/{} - 500 - {}ms - Error: {}", id, duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     @GetMapping("/customer/{email}")
-    public ResponseEntity<List<Order>> getOrdersByCustomer(@PathVariable String email) {
+    public ResponseEntity<List<Order>> getOrdersByCustomer(@PathVariable String email,
+                                                           @RequestParam(defaultValue = "false") boolean includeArchived) {
         long startTime = System.currentTimeMillis();
         
         try {
-            List<Order> orders = orderService.getOrdersByCustomer(email);
+            List<Order> orders = orderService.getOrdersByCustomer(email, includeArchived);
             long duration = System.currentTimeMillis() - startTime;
             
             accessLogger.info("GET /api/orders/customer/{} - 200 - {}ms - {} orders found", 
@@ -88,6 +119,50 @@ public class OrderController {
         }
     }
     
+    @GetMapping("/status/{status}")
+    public ResponseEntity<List<Order>> getOrdersByStatus(@PathVariable String status,
+                                                         @RequestParam(defaultValue = "false") boolean includeArchived) {
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            List<Order> orders = orderService.getOrdersByStatus(status, includeArchived);
+            long duration = System.currentTimeMillis() - startTime;
+            
+            accessLogger.info("GET /api/orders/status/{} - 200 - {}ms - {} orders found", 
+                            status, duration, orders.size());
+            return ResponseEntity.ok(orders);
+            
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error fetching orders with status {}: {}", status, e.getMessage());
+            accessLogger.error("GET /api/orders/status/{} - 500 - {}ms - Error: {}", 
+                             status, duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
+    @GetMapping("/between")
+    public ResponseEntity<List<Order>> getOrdersBetween(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        long startTime = System.currentTimeMillis();
+        
+        try {
+            List<Order> orders = orderService.getOrdersBetween(from, to, includeArchived);
+            long duration = System.currentTimeMillis() - startTime;
+            
+            accessLogger.info("GET /api/orders/between - 200 - {}ms - {} orders found", duration, orders.size());
+            return ResponseEntity.ok(orders);
+            
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error fetching orders between {} and {}: {}", from, to, e.getMessage());
+            accessLogger.error("GET /api/orders/between - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+    
     @PutMapping("/{id}/status")
     public ResponseEntity<Order> updateOrderStatus(@PathVariable Long id, @RequestParam String status) {
         long startTime = System.currentTimeMillis();
@@ -100,6 +175,10 @@ public class OrderController {
                             id, duration, status);
             return ResponseEntity.ok(updatedOrder);
             
+        } catch (IllegalStateException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            accessLogger.warn("PUT /api/orders/{}/status - 409 - {}ms - {}", id, duration, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
         } catch (Exception e) {
             long duration = System.currentTimeMillis() - startTime;
             logger.error("Error updating order {} status: {}", id, e.getMessage());
@@ -110,30 +189,34 @@ public class OrderController {
     }
     
     @PostMapping("/{id}/payment")
-    public ResponseEntity<Map<String, Object>> processPayment(@PathVariable Long id, @RequestBody Map<String, String> paymentRequest) {
+    public ResponseEntity<PaymentResponse> processPayment(@PathVariable Long id, @Valid @RequestBody PaymentRequest paymentRequest) {
         long startTime = System.currentTimeMillis();
         
         try {
-            String paymentMethod = paymentRequest.get("paymentMethod");
+            String paymentMethod = paymentRequest.paymentMethod();
             boolean success = orderService.processPayment(id, paymentMethod);
             long duration = System.currentTimeMillis() - startTime;
             
             if (success) {
                 accessLogger.info("POST /api/orders/{}/payment - 200 - {}ms - Payment successful with {}", 
                                 id, duration, paymentMethod);
-                return ResponseEntity.ok(Map.of("success", true, "message", "Payment processed successfully"));
+                return ResponseEntity.ok(new PaymentResponse(true, "Payment processed successfully"));
             } else {
                 accessLogger.warn("POST /api/orders/{}/payment - 400 - {}ms - Payment failed with {}", 
                                 id, duration, paymentMethod);
-                return ResponseEntity.badRequest().body(Map.of("success", false, "message", "Payment failed"));
+                return ResponseEntity.badRequest().body(new PaymentResponse(false, "Payment failed"));
             }
             
+        } catch (IllegalStateException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            accessLogger.warn("POST /api/orders/{}/payment - 409 - {}ms - {}", id, duration, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(new PaymentResponse(false, e.getMessage()));
         } catch (Exception e) {
             long duration = System.currentTimeMillis() - startTime;
             logger.error("Error processing payment for order {}: {}", id, e.getMessage());
             accessLogger.error("POST /api/orders/{}/payment - 500 - {}ms - Error: {}", 
                              id, duration, e.getMessage());
-            return ResponseEntity.internalServerError().body(Map.of("success", false, "message", e.getMessage()));
+            return ResponseEntity.internalServerError().body(new PaymentResponse(false, e.getMessage()));
         }
     }
     
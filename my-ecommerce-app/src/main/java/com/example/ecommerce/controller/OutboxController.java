@@ -0,0 +1,89 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.model.OutboxEvent;
+import com.example.ecommerce.service.OutboxService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+// Flux de changements des commandes pour les consommateurs en mode pull :
+// lecture à partir d'un offset puis acquittement, pour reprendre là où on s'est arrêté
+@RestController
+@RequestMapping("/api/outbox")
+@CrossOrigin(origins = "*")
+public class OutboxController {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxController.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("ACCESS_LOGGER");
+
+    private static final int MAX_LIMIT = 1000;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @GetMapping("/events")
+    public ResponseEntity<List<OutboxEvent>> getEvents(@RequestParam(defaultValue = "0") long after,
+                                                       @RequestParam(defaultValue = "100") int limit) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            List<OutboxEvent> events = outboxService.readAfter(after, Math.min(Math.max(limit, 1), MAX_LIMIT));
+            long duration = System.currentTimeMillis() - startTime;
+
+            accessLogger.info("GET /api/outbox/events?after={} - 200 - {}ms - {} events returned",
+                            after, duration, events.size());
+            return ResponseEntity.ok(events);
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error reading outbox after offset {}: {}", after, e.getMessage());
+            accessLogger.error("GET /api/outbox/events?after={} - 500 - {}ms - Error: {}", after, duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @GetMapping("/consumers/{consumer}")
+    public ResponseEntity<Map<String, Object>> getConsumerOffset(@PathVariable String consumer) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            long offset = outboxService.committedOffset(consumer);
+            long latest = outboxService.latestOffset();
+            long duration = System.currentTimeMillis() - startTime;
+
+            accessLogger.info("GET /api/outbox/consumers/{} - 200 - {}ms - offset {}", consumer, duration, offset);
+            return ResponseEntity.ok(Map.of("consumer", consumer, "offset", offset, "latestOffset", latest,
+                                            "lag", Math.max(0, latest - offset)));
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error reading offset of consumer {}: {}", consumer, e.getMessage());
+            accessLogger.error("GET /api/outbox/consumers/{} - 500 - {}ms - Error: {}", consumer, duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    @PutMapping("/consumers/{consumer}")
+    public ResponseEntity<Map<String, Object>> commitOffset(@PathVariable String consumer, @RequestParam long offset) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            outboxService.commit(consumer, offset);
+            long duration = System.currentTimeMillis() - startTime;
+
+            accessLogger.info("PUT /api/outbox/consumers/{} - 200 - {}ms - offset committed: {}", consumer, duration, offset);
+            return ResponseEntity.ok(Map.of("consumer", consumer, "offset", outboxService.committedOffset(consumer)));
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error committing offset {} for consumer {}: {}", offset, consumer, e.getMessage());
+            accessLogger.error("PUT /api/outbox/consumers/{} - 500 - {}ms - Error: {}", consumer, duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
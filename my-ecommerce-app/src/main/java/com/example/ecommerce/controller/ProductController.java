@@ -1,13 +1,20 @@
 package com.example.ecommerce.controller;
 
 import com.example.ecommerce.model.Product;
+import com.example.ecommerce.service.ProductCatalog;
 import com.example.ecommerce.service.ProductService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,16 +29,29 @@ public class ProductController {
     @Autowired
     private ProductService productService;
     
+    @Value("${app.http-cache.max-age:30s}")
+    private Duration cacheMaxAge;
+    
     @GetMapping
-    public ResponseEntity<List<Product>> getAllProducts() {
+    public ResponseEntity<byte[]> getAllProducts(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         long startTime = System.currentTimeMillis();
         
         try {
-            List<Product> products = productService.getAllProducts();
+            // Requête conditionnelle : la version du catalogue suffit, sans construire de réponse
+            Optional<String> matched = matchingETag(ifNoneMatch, productService.getCatalogETag());
+            if (matched.isPresent()) {
+                long duration = System.currentTimeMillis() - startTime;
+                accessLogger.info("GET /api/products - 304 - {}ms - Not modified", duration);
+                return notModified(matched.get());
+            }
+            
+            // Corps JSON pré-sérialisé par le catalogue, écrit tel quel dans la réponse
+            ProductCatalog.Listing listing = productService.getAllProductsListing();
             long duration = System.currentTimeMillis() - startTime;
             
-            accessLogger.info("GET /api/products - 200 - {}ms - {} products returned", duration, products.size());
-            return ResponseEntity.ok(products);
+            accessLogger.info("GET /api/products - 200 - {}ms - {} products returned", duration, listing.products().size());
+            return listingResponse(listing, acceptEncoding);
             
         } catch (Exception e) {
             long duration = System.currentTimeMillis() - startTime;
@@ -42,16 +62,28 @@ public class ProductController {
     }
     
     @GetMapping("/{id}")
-    public ResponseEntity<Product> getProductById(@PathVariable Long id) {
+    public ResponseEntity<Product> getProductById(@PathVariable Long id,
+                                                  @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         long startTime = System.currentTimeMillis();
         
         try {
+            // ETag lu avant le produit : au pire le client revalide une fois de trop
+            Optional<String> etag = productService.getProductETag(id);
+            Optional<String> matched = etag.flatMap(value -> matchingETag(ifNoneMatch, value));
+            if (matched.isPresent()) {
+                long duration = System.currentTimeMillis() - startTime;
+                accessLogger.info("GET /api/products/{} - 304 - {}ms - Not modified", id, duration);
+                return notModified(matched.get());
+            }
+            
             Optional<Product> product = productService.getProductById(id);
             long duration = System.currentTimeMillis() - startTime;
             
             if (product.isPresent()) {
                 accessLogger.info("GET /api/products/{} - 200 - {}ms - Product found", id, duration);
-                return ResponseEntity.ok(product.get());
+                ResponseEntity.BodyBuilder response = ResponseEntity.ok().cacheControl(cacheControl()).varyBy(HttpHeaders.ACCEPT);
+                etag.ifPresent(response::eTag);
+                return response.body(product.get());
             } else {
                 accessLogger.warn("GET /api/products/{} - 404 - {}ms - Product not found", id, duration);
                 return ResponseEntity.notFound().build();
@@ -66,16 +98,25 @@ public class ProductController {
     }
     
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Product>> getProductsByCategory(@PathVariable String category) {
+    public ResponseEntity<byte[]> getProductsByCategory(@PathVariable String category,
+                                                        @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+                                                        @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         long startTime = System.currentTimeMillis();
         
         try {
-            List<Product> products = productService.getProductsByCategory(category);
+            Optional<String> matched = matchingETag(ifNoneMatch, productService.getCategoryETag(category));
+            if (matched.isPresent()) {
+                long duration = System.currentTimeMillis() - startTime;
+                accessLogger.info("GET /api/products/category/{} - 304 - {}ms - Not modified", category, duration);
+                return notModified(matched.get());
+            }
+            
+            ProductCatalog.Listing listing = productService.getCategoryListing(category);
             long duration = System.currentTimeMillis() - startTime;
             
             accessLogger.info("GET /api/products/category/{} - 200 - {}ms - {} products found", 
-                            category, duration, products.size());
-            return ResponseEntity.ok(products);
+                            category, duration, listing.products().size());
+            return listingResponse(listing, acceptEncoding);
             
         } catch (Exception e) {
             long duration = System.currentTimeMillis() - startTime;
@@ -152,4 +193,55 @@ public class ProductController {
             return ResponseEntity.internalServerError().build();
         }
     }
+    
+    private ResponseEntity<byte[]> listingResponse(ProductCatalog.Listing listing, String acceptEncoding) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(cacheControl())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        
+        // Version gzip pré-calculée par le catalogue : aucune compression à la volée
+        if (listing.gzip() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.eTag(gzipETag(listing.etag()))
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(listing.gzip());
+        }
+        return response.eTag(listing.etag()).body(listing.json());
+    }
+    
+    private <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(cacheControl())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING).build();
+    }
+    
+    private CacheControl cacheControl() {
+        // Le CDN peut servir sa copie pendant max-age puis doit revalider avec l'ETag ;
+        // Vary: Accept sépare cette représentation JSON du flux NDJSON servi à la même URL
+        return CacheControl.maxAge(cacheMaxAge).cachePublic().mustRevalidate();
+    }
+    
+    private static String gzipETag(String etag) {
+        return etag.substring(0, etag.length() - 1) + "-gz\"";
+    }
+    
+    // ETag de la représentation revalidée (identité ou gzip) : le 304 doit porter celui de la copie en cache
+    private static Optional<String> matchingETag(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return Optional.empty();
+        }
+        if (ifNoneMatch.trim().equals("*")) {
+            return Optional.of(etag);
+        }
+        String gzipETag = gzipETag(etag);
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals(etag) || value.equals(gzipETag)) {
+                return Optional.of(value);
+            }
+        }
+        return Optional.empty();
+    }
 }
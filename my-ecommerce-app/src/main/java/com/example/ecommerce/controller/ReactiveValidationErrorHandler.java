@@ -0,0 +1,20 @@
+package com.example.ecommerce.controller;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.bind.support.WebExchangeBindException;
+import org.springframework.web.server.ServerWebExchange;
+
+import java.util.Map;
+
+@RestControllerAdvice
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveValidationErrorHandler extends ValidationErrorHandler {
+
+    @ExceptionHandler(WebExchangeBindException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidBody(WebExchangeBindException e, ServerWebExchange exchange) {
+        return validationFailed(exchange.getRequest().getMethod().name(), exchange.getRequest().getPath().value(), e);
+    }
+}
@@ -0,0 +1,120 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.reporting.Dimension;
+import com.example.ecommerce.reporting.OrderFilter;
+import com.example.ecommerce.reporting.OrderSnapshot;
+import com.example.ecommerce.reporting.ReportResult;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// Rapports sur les commandes, calculés sur la copie en colonnes (OrderSnapshot), sans requête SQL
+@RestController
+@RequestMapping("/api/reports")
+@CrossOrigin(origins = "*")
+public class ReportController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReportController.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("ACCESS_LOGGER");
+
+    // Même définition du chiffre d'affaires que /api/orders/revenue
+    private static final String REVENUE_STATUS = "CONFIRMED";
+
+    @Autowired
+    private OrderSnapshot orderSnapshot;
+
+    // Requête libre : groupBy = 0 à 2 dimensions parmi category, day, payment-method, status, customer, product
+    @GetMapping("/query")
+    public ResponseEntity<ReportResult> query(@RequestParam(required = false) List<String> groupBy,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                              @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                              @RequestParam(required = false) String status,
+                                              @RequestParam(required = false) String paymentMethod,
+                                              @RequestParam(required = false) String category,
+                                              @RequestParam(required = false) String customerEmail,
+                                              @RequestParam(defaultValue = "revenue") String sort,
+                                              @RequestParam(defaultValue = "100") int limit) {
+        List<Dimension> dimensions = new ArrayList<>();
+        try {
+            if (groupBy != null) {
+                groupBy.forEach(name -> dimensions.add(Dimension.of(name)));
+            }
+        } catch (IllegalArgumentException e) {
+            accessLogger.warn("GET /api/reports/query - 400 - 0ms - Unknown dimension in {}", groupBy);
+            return ResponseEntity.badRequest().build();
+        }
+        return report("/api/reports/query", new OrderFilter(from, to, status, paymentMethod, category, customerEmail),
+                      dimensions, sort, limit);
+    }
+
+    @GetMapping("/revenue-by-category-day")
+    public ResponseEntity<ReportResult> revenueByCategoryAndDay(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return report("/api/reports/revenue-by-category-day",
+                      new OrderFilter(from, to, REVENUE_STATUS, null, null, null),
+                      List.of(Dimension.CATEGORY, Dimension.DAY), "key", 0);
+    }
+
+    @GetMapping("/basket-by-payment-method")
+    public ResponseEntity<ReportResult> basketByPaymentMethod(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        return report("/api/reports/basket-by-payment-method",
+                      new OrderFilter(from, to, REVENUE_STATUS, null, null, null),
+                      List.of(Dimension.PAYMENT_METHOD), "average-basket", 0);
+    }
+
+    @GetMapping("/top-customers")
+    public ResponseEntity<ReportResult> topCustomers(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int limit) {
+        return report("/api/reports/top-customers",
+                      new OrderFilter(from, to, REVENUE_STATUS, null, null, null),
+                      List.of(Dimension.CUSTOMER), "revenue", Math.max(1, limit));
+    }
+
+    @GetMapping("/snapshot")
+    public ResponseEntity<Map<String, Object>> snapshot() {
+        long startTime = System.currentTimeMillis();
+        Map<String, Object> status = orderSnapshot.status();
+        long duration = System.currentTimeMillis() - startTime;
+
+        accessLogger.info("GET /api/reports/snapshot - 200 - {}ms - {} orders in snapshot", duration, status.get("orders"));
+        return ResponseEntity.ok(status);
+    }
+
+    private ResponseEntity<ReportResult> report(String path, OrderFilter filter, List<Dimension> dimensions,
+                                                String sort, int limit) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            ReportResult result = orderSnapshot.query(filter, dimensions, sort, limit);
+            long duration = System.currentTimeMillis() - startTime;
+
+            accessLogger.info("GET {} - 200 - {}ms - {} orders scanned, {} groups", path, duration,
+                            result.scannedOrders(), result.groups());
+            return ResponseEntity.ok(result);
+
+        } catch (IllegalArgumentException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            accessLogger.warn("GET {} - 400 - {}ms - Error: {}", path, duration, e.getMessage());
+            return ResponseEntity.badRequest().build();
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error computing report {}: {}", path, e.getMessage());
+            accessLogger.error("GET {} - 500 - {}ms - Error: {}", path, duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.example.ecommerce.controller;
+
+import com.example.ecommerce.sharding.ShardLayout;
+import com.example.ecommerce.sharding.ShardManager;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+// Répartition des commandes entre shards : état et rééquilibrage en ligne
+@RestController
+@RequestMapping("/api/admin/shards")
+@CrossOrigin(origins = "*")
+public class ShardAdminController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardAdminController.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("ACCESS_LOGGER");
+
+    @Autowired
+    private ShardManager shardManager;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> getStatus() {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            Map<String, Object> status = shardManager.status();
+            long duration = System.currentTimeMillis() - startTime;
+
+            accessLogger.info("GET /api/admin/shards - 200 - {}ms - {} shards, rebalancing: {}",
+                            duration, status.get("shards"), status.get("rebalancing"));
+            return ResponseEntity.ok(status);
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error reading shard status: {}", e.getMessage());
+            accessLogger.error("GET /api/admin/shards - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // Retourne immédiatement : le déplacement des commandes se suit avec GET /api/admin/shards
+    @PostMapping("/reshard")
+    public ResponseEntity<Map<String, Object>> reshard(@RequestParam int shards) {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            ShardLayout layout = shardManager.reshard(shards);
+            long duration = System.currentTimeMillis() - startTime;
+
+            accessLogger.info("POST /api/admin/shards/reshard - 202 - {}ms - Resharding to {} shards", duration, shards);
+            return ResponseEntity.accepted().body(Map.of("shards", layout.shards(), "schemas", layout.schemas(),
+                                                         "rebalancing", layout.rebalancing()));
+
+        } catch (IllegalArgumentException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            accessLogger.warn("POST /api/admin/shards/reshard - 400 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+
+        } catch (IllegalStateException e) {
+            long duration = System.currentTimeMillis() - startTime;
+            accessLogger.warn("POST /api/admin/shards/reshard - 409 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+
+        } catch (Exception e) {
+            long duration = System.currentTimeMillis() - startTime;
+            logger.error("Error resharding orders to {} shards: {}", shards, e.getMessage());
+            accessLogger.error("POST /api/admin/shards/reshard - 500 - {}ms - Error: {}", duration, e.getMessage());
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+}
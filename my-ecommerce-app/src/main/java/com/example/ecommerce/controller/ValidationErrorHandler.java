@@ -0,0 +1,31 @@
+package com.example.ecommerce.controller;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.ResponseEntity;
+import org.springframework.validation.BindingResult;
+import org.springframework.validation.FieldError;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Corps de requête invalide : 400 avec le détail par champ, avant d'entrer dans le contrôleur.
+// Une variante par type d'application web (ServletValidationErrorHandler, ReactiveValidationErrorHandler)
+abstract class ValidationErrorHandler {
+
+    private static final Logger accessLogger = LoggerFactory.getLogger("ACCESS_LOGGER");
+
+    protected ResponseEntity<Map<String, Object>> validationFailed(String method, String path, BindingResult result) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        for (FieldError error : result.getFieldErrors()) {
+            fields.putIfAbsent(error.getField(), error.getDefaultMessage());
+        }
+        accessLogger.warn("{} {} - 400 - 0ms - Validation failed: {}", method, path, fields);
+        return ResponseEntity.badRequest().body(Map.of("error", "Validation failed", "fields", fields));
+    }
+
+    protected ResponseEntity<Map<String, Object>> malformedBody(String method, String path) {
+        accessLogger.warn("{} {} - 400 - 0ms - Malformed request body", method, path);
+        return ResponseEntity.badRequest().body(Map.of("error", "Malformed request body"));
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.ecommerce.dto;
+
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+// Corps de POST /api/orders ; types primitifs : un champ absent vaut 0 et est refusé par la validation
+public record CreateOrderRequest(
+        @NotBlank @Email @Size(max = 255) String customerEmail,
+        @NotBlank @Size(max = 255) String customerName,
+        @Positive long productId,
+        @Positive @Max(1000) int quantity) {
+}
@@ -0,0 +1,8 @@
+package com.example.ecommerce.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+
+// Corps de POST /api/orders/{id}/payment
+public record PaymentRequest(@NotBlank @Size(max = 50) String paymentMethod) {
+}
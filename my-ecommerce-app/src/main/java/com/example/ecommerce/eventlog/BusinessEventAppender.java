@@ -0,0 +1,50 @@
+package com.example.ecommerce.eventlog;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Appender logback branché sur BUSINESS_LOGGER : chaque événement métier est aussi
+ * ajouté au journal d'événements, avec son event_type comme type.
+ */
+public class BusinessEventAppender extends AppenderBase<ILoggingEvent> {
+
+    private static final String EVENT_TYPE_KEY = "\"event_type\":\"";
+
+    private final EventLogStore store;
+
+    public BusinessEventAppender(EventLogStore store) {
+        this.store = store;
+        setName("EVENT_LOG");
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        String message = normalize(event.getFormattedMessage());
+        try {
+            store.append(eventType(message), message.getBytes(StandardCharsets.UTF_8));
+        } catch (Exception e) {
+            addError("Cannot append business event to event log", e);
+        }
+    }
+
+    // Les messages métier sont écrits "{{...}}" (accolades échappées pour SLF4J) : on garde un objet JSON valide
+    static String normalize(String message) {
+        if (message.startsWith("{{") && message.endsWith("}}")) {
+            return message.substring(1, message.length() - 1);
+        }
+        return message;
+    }
+
+    static String eventType(String message) {
+        int start = message.indexOf(EVENT_TYPE_KEY);
+        if (start < 0) {
+            return "unknown";
+        }
+        start += EVENT_TYPE_KEY.length();
+        int end = message.indexOf('"', start);
+        return end > start ? message.substring(start, end) : "unknown";
+    }
+}
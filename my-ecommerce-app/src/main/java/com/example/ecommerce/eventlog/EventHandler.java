@@ -0,0 +1,9 @@
+package com.example.ecommerce.eventlog;
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface EventHandler {
+
+    void onEvent(EventRecord record) throws IOException;
+}
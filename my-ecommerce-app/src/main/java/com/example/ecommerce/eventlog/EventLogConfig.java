@@ -0,0 +1,89 @@
+package com.example.ecommerce.eventlog;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.time.Duration;
+
+@Configuration
+@ConditionalOnProperty(name = "app.event-log.enabled", havingValue = "true", matchIfMissing = true)
+public class EventLogConfig {
+
+    private static final org.slf4j.Logger logger = LoggerFactory.getLogger(EventLogConfig.class);
+
+    @Value("${app.event-log.directory:event-log}")
+    private String directory;
+
+    @Value("${app.event-log.segment-bytes:67108864}")
+    private int segmentBytes;
+
+    @Value("${app.event-log.index-interval-bytes:4096}")
+    private int indexIntervalBytes;
+
+    @Value("${app.event-log.retention.max-bytes:1073741824}")
+    private long retentionBytes;
+
+    @Value("${app.event-log.retention.max-age:7d}")
+    private Duration retentionAge;
+
+    private EventLogStore store;
+    private BusinessEventAppender appender;
+
+    // Fermé dans shutdown(), une fois l'appender détaché
+    @Bean(destroyMethod = "")
+    public EventLogStore eventLogStore() throws IOException {
+        store = new EventLogStore(Paths.get(directory), segmentBytes, indexIntervalBytes);
+
+        // Branché par code : l'appender a besoin du store, créé par Spring
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        appender = new BusinessEventAppender(store);
+        appender.setContext(context);
+        appender.start();
+        businessLogger().addAppender(appender);
+        return store;
+    }
+
+    // Les pages mappées sont écrites par l'OS ; on force périodiquement pour borner la perte en cas de crash machine
+    @Scheduled(fixedDelayString = "${app.event-log.flush-interval:1000}")
+    public void flush() {
+        if (store != null) {
+            store.flush();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.event-log.retention.check-interval:60000}")
+    public void enforceRetention() {
+        if (store == null) {
+            return;
+        }
+        try {
+            store.enforceRetention(retentionBytes, System.currentTimeMillis() - retentionAge.toMillis());
+        } catch (IOException e) {
+            logger.warn("Event log retention failed: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws IOException {
+        if (appender != null) {
+            businessLogger().detachAppender(appender);
+            appender.stop();
+        }
+        if (store != null) {
+            store.close();
+        }
+    }
+
+    private static Logger businessLogger() {
+        return ((LoggerContext) LoggerFactory.getILoggerFactory()).getLogger("BUSINESS_LOGGER");
+    }
+}
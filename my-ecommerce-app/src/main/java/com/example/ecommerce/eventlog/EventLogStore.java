@@ -0,0 +1,231 @@
+package com.example.ecommerce.eventlog;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.stream.Stream;
+
+/**
+ * Journal d'événements embarqué, en ajout seul : segments mappés en mémoire
+ * (voir {@link Segment} pour le format), index clairsemés en offset et en temps,
+ * dictionnaire des types d'événements persisté dans event-types.txt.
+ */
+public class EventLogStore implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(EventLogStore.class);
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int indexIntervalBytes;
+    private final Path typesFile;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final Map<String, Short> typeIds = new HashMap<>();
+    private volatile String[] typeNames = new String[0];
+
+    private Segment active;
+    private long nextOffset;
+    private long lastTimestamp;
+
+    public EventLogStore(Path directory, int segmentBytes, int indexIntervalBytes) throws IOException {
+        this.directory = directory;
+        this.segmentBytes = segmentBytes;
+        this.indexIntervalBytes = indexIntervalBytes;
+        this.typesFile = directory.resolve("event-types.txt");
+
+        Files.createDirectories(directory);
+        loadTypes();
+        openSegments();
+    }
+
+    public synchronized long append(String type, byte[] payload) throws IOException {
+        if (Segment.HEADER_BYTES + payload.length + 4 > segmentBytes) {
+            throw new IOException("Event of " + payload.length + " bytes does not fit in a segment");
+        }
+        short typeId = typeId(type);
+        // Horodatage forcé croissant : l'index temporel repose dessus
+        long timestamp = Math.max(System.currentTimeMillis(), lastTimestamp);
+
+        if (!active.append(nextOffset, timestamp, typeId, payload)) {
+            roll();
+            active.append(nextOffset, timestamp, typeId, payload);
+        }
+        lastTimestamp = timestamp;
+        return nextOffset++;
+    }
+
+    /**
+     * Rejoue les événements de [fromTimestamp, toTimestamp] dans l'ordre des offsets.
+     * type null = tous les types. Retourne le nombre d'événements transmis au handler.
+     */
+    public long replay(long fromTimestamp, long toTimestamp, String type, boolean verify, EventHandler handler) throws IOException {
+        return replay(0, fromTimestamp, toTimestamp, type, verify, Long.MAX_VALUE, handler);
+    }
+
+    // Au plus limit événements à partir de fromOffset : la reprise se fait au dernier offset reçu + 1
+    public long replay(long fromOffset, long fromTimestamp, long toTimestamp, String type, boolean verify, long limit,
+                       EventHandler handler) throws IOException {
+        int typeFilter = -1;
+        if (type != null) {
+            Short id = lookupTypeId(type);
+            if (id == null) {
+                return 0;
+            }
+            typeFilter = id;
+        }
+
+        EventRecord record = new EventRecord(this);
+        long count = 0;
+        for (Segment segment : segments) {
+            if (count >= limit) {
+                break;
+            }
+            if (segment.recordCount() == 0 || segment.nextOffset() <= fromOffset
+                    || segment.lastTimestamp() < fromTimestamp) {
+                continue;
+            }
+            if (segment.firstTimestamp() > toTimestamp) {
+                break;
+            }
+            count += segment.scan(fromOffset, fromTimestamp, toTimestamp, typeFilter, verify, limit - count, record, handler);
+        }
+        return count;
+    }
+
+    public synchronized void flush() {
+        active.force();
+    }
+
+    /**
+     * Supprime les segments scellés les plus anciens tant que le journal dépasse maxBytes (taille des fichiers
+     * pré-alloués) ou que leur dernier événement est antérieur à minTimestamp. Le segment actif est toujours conservé.
+     */
+    public synchronized int enforceRetention(long maxBytes, long minTimestamp) throws IOException {
+        long bytes = 0;
+        for (Segment segment : segments) {
+            bytes += segment.fileBytes();
+        }
+        int deleted = 0;
+        while (segments.size() > 1) {
+            Segment oldest = segments.get(0);
+            if (bytes <= maxBytes && oldest.lastTimestamp() >= minTimestamp) {
+                break;
+            }
+            segments.remove(0);
+            bytes -= oldest.fileBytes();
+            oldest.delete();
+            deleted++;
+            logger.info("Event log segment deleted by retention: {} (offsets {}..{})",
+                        oldest.file.getFileName(), oldest.baseOffset, oldest.nextOffset() - 1);
+        }
+        return deleted;
+    }
+
+    public Map<String, Object> stats() {
+        long bytes = 0;
+        long firstOffset = -1;
+        for (Segment segment : segments) {
+            bytes += segment.sizeBytes();
+            if (firstOffset < 0 && segment.recordCount() > 0) {
+                firstOffset = segment.baseOffset;
+            }
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("segments", segments.size());
+        stats.put("bytes", bytes);
+        stats.put("firstOffset", firstOffset);
+        stats.put("nextOffset", nextOffset());
+        stats.put("types", List.of(typeNames));
+        return stats;
+    }
+
+    public synchronized long nextOffset() {
+        return nextOffset;
+    }
+
+    String typeName(short typeId) {
+        String[] names = typeNames;
+        return typeId >= 0 && typeId < names.length ? names[typeId] : null;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        if (active != null) {
+            active.seal();
+        }
+    }
+
+    private synchronized Short lookupTypeId(String type) {
+        return typeIds.get(type);
+    }
+
+    private short typeId(String type) throws IOException {
+        Short id = typeIds.get(type);
+        if (id != null) {
+            return id;
+        }
+        if (typeIds.size() >= Short.MAX_VALUE) {
+            throw new IOException("Too many event types");
+        }
+        short newId = (short) typeIds.size();
+        Files.writeString(typesFile, type + "\n", StandardCharsets.UTF_8,
+                          StandardOpenOption.CREATE, StandardOpenOption.APPEND, StandardOpenOption.SYNC);
+        typeIds.put(type, newId);
+
+        String[] names = new String[newId + 1];
+        System.arraycopy(typeNames, 0, names, 0, newId);
+        names[newId] = type;
+        typeNames = names;
+        return newId;
+    }
+
+    private void loadTypes() throws IOException {
+        if (!Files.exists(typesFile)) {
+            return;
+        }
+        List<String> names = Files.readAllLines(typesFile, StandardCharsets.UTF_8);
+        for (int i = 0; i < names.size(); i++) {
+            typeIds.put(names.get(i), (short) i);
+        }
+        typeNames = names.toArray(new String[0]);
+    }
+
+    private void openSegments() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (Stream<Path> listing = Files.list(directory)) {
+            listing.filter(path -> path.getFileName().toString().matches("events-\\d{20}\\.log"))
+                   .sorted()
+                   .forEach(files::add);
+        }
+
+        for (int i = 0; i < files.size(); i++) {
+            boolean last = i == files.size() - 1;
+            segments.add(Segment.open(files.get(i), segmentBytes, indexIntervalBytes, last));
+        }
+
+        if (segments.isEmpty()) {
+            segments.add(Segment.create(directory, 0, segmentBytes, indexIntervalBytes));
+        }
+        active = segments.get(segments.size() - 1);
+        nextOffset = active.nextOffset();
+        lastTimestamp = Math.max(active.lastTimestamp(), 0);
+        logger.info("Event log opened in {}: {} segments, next offset {}", directory.toAbsolutePath(), segments.size(), nextOffset);
+    }
+
+    private void roll() throws IOException {
+        active.seal();
+        active = Segment.create(directory, nextOffset, segmentBytes, indexIntervalBytes);
+        segments.add(active);
+        logger.info("Event log rolled to new segment at offset {}", nextOffset);
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.ecommerce.eventlog;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Vue sur un enregistrement du journal pendant un replay. L'instance et son payload
+ * (tranche du segment mappé en mémoire, sans copie) sont réutilisés d'un enregistrement
+ * à l'autre : ils ne sont valides que pendant l'appel au handler.
+ */
+public final class EventRecord {
+
+    private final EventLogStore store;
+    private long offset;
+    private long timestamp;
+    private short typeId;
+    private ByteBuffer payload;
+
+    EventRecord(EventLogStore store) {
+        this.store = store;
+    }
+
+    void set(long offset, long timestamp, short typeId, ByteBuffer payload) {
+        this.offset = offset;
+        this.timestamp = timestamp;
+        this.typeId = typeId;
+        this.payload = payload;
+    }
+
+    public long offset() { return offset; }
+
+    public long timestamp() { return timestamp; }
+
+    public String type() { return store.typeName(typeId); }
+
+    // Position et limite délimitent le payload ; utiliser duplicate() pour le conserver au-delà du callback
+    public ByteBuffer payload() { return payload; }
+}
@@ -0,0 +1,312 @@
+package com.example.ecommerce.eventlog;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.zip.CRC32C;
+
+/**
+ * Segment du journal : fichier pré-alloué et mappé en mémoire, suivi d'un index clairsemé.
+ *
+ * Format d'un enregistrement (big endian) :
+ *   int   length     taille des champs qui suivent le CRC (offset..payload)
+ *   int   crc32c     sur offset..payload
+ *   long  offset
+ *   long  timestamp  epoch millis, croissant dans tout le journal
+ *   short type       identifiant dans le dictionnaire des types
+ *   byte[] payload
+ * Un length à 0 marque la fin des données écrites.
+ */
+final class Segment {
+
+    static final int HEADER_BYTES = 4 + 4 + 8 + 8 + 2;
+    private static final int BODY_HEADER_BYTES = 8 + 8 + 2;
+    private static final int INDEX_MAGIC = 0x45564958;
+
+    final Path file;
+    final long baseOffset;
+    private final Path indexFile;
+    private final MappedByteBuffer buffer;
+    private final int indexIntervalBytes;
+
+    // Octets validés : les lecteurs ne lisent jamais au-delà
+    private volatile int size;
+    private long nextOffset;
+    private long firstTimestamp = -1;
+    private volatile long lastTimestamp = -1;
+
+    // Index clairsemé : une entrée tous les indexIntervalBytes octets
+    private int[] indexPositions = new int[64];
+    private long[] indexOffsets = new long[64];
+    private long[] indexTimestamps = new long[64];
+    private volatile int indexCount;
+    private int lastIndexedPosition = -1;
+
+    private final CRC32C crc = new CRC32C();
+
+    private Segment(Path file, long baseOffset, MappedByteBuffer buffer, int indexIntervalBytes) {
+        this.file = file;
+        this.baseOffset = baseOffset;
+        this.indexFile = file.resolveSibling(file.getFileName().toString().replace(".log", ".idx"));
+        this.buffer = buffer;
+        this.indexIntervalBytes = indexIntervalBytes;
+        this.nextOffset = baseOffset;
+    }
+
+    static Path fileFor(Path directory, long baseOffset) {
+        return directory.resolve(String.format("events-%020d.log", baseOffset));
+    }
+
+    static long baseOffsetOf(Path file) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring("events-".length(), name.length() - ".log".length()));
+    }
+
+    static Segment create(Path directory, long baseOffset, int capacity, int indexIntervalBytes) throws IOException {
+        Path file = fileFor(directory, baseOffset);
+        return new Segment(file, baseOffset, map(file, capacity, true), indexIntervalBytes);
+    }
+
+    // Réouverture après redémarrage : l'index persistant évite de relire un segment scellé,
+    // le segment actif est relu et chaque enregistrement vérifié par CRC jusqu'au premier invalide
+    static Segment open(Path file, int capacity, int indexIntervalBytes, boolean active) throws IOException {
+        long fileSize = Files.size(file);
+        int mappedSize = active ? (int) Math.max(capacity, fileSize) : (int) fileSize;
+        Segment segment = new Segment(file, baseOffsetOf(file), map(file, mappedSize, active), indexIntervalBytes);
+
+        if (active || !segment.loadIndex()) {
+            segment.recover();
+        }
+        return segment;
+    }
+
+    private static MappedByteBuffer map(Path file, int size, boolean writable) throws IOException {
+        if (writable) {
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                                                        StandardOpenOption.WRITE)) {
+                return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+    }
+
+    long nextOffset() {
+        return nextOffset;
+    }
+
+    long firstTimestamp() {
+        return firstTimestamp;
+    }
+
+    long lastTimestamp() {
+        return lastTimestamp;
+    }
+
+    int sizeBytes() {
+        return size;
+    }
+
+    long recordCount() {
+        return nextOffset - baseOffset;
+    }
+
+    // Appelé sous le verrou du store ; false si le segment est plein
+    boolean append(long offset, long timestamp, short type, byte[] payload) {
+        int position = size;
+        int length = BODY_HEADER_BYTES + payload.length;
+        if (position + HEADER_BYTES + payload.length + 4 > buffer.capacity()) {
+            return false;
+        }
+
+        buffer.putLong(position + 8, offset);
+        buffer.putLong(position + 16, timestamp);
+        buffer.putShort(position + 24, type);
+        buffer.put(position + HEADER_BYTES, payload);
+
+        crc.reset();
+        crc.update(buffer.slice(position + 8, length));
+        buffer.putInt(position + 4, (int) crc.getValue());
+        // Marqueur de fin écrit avant la longueur : un lecteur ou une reprise s'arrête toujours proprement
+        buffer.putInt(position + 8 + length, 0);
+        buffer.putInt(position, length);
+
+        addIndexEntry(position, offset, timestamp);
+        if (firstTimestamp < 0) {
+            firstTimestamp = timestamp;
+        }
+        lastTimestamp = timestamp;
+        nextOffset = offset + 1;
+        size = position + 8 + length;
+        return true;
+    }
+
+    /**
+     * Parcourt les enregistrements de [fromTimestamp, toTimestamp] (et d'offset >= fromOffset),
+     * en démarrant à l'entrée d'index la plus proche, jusqu'à limit enregistrements transmis.
+     * typeFilter < 0 accepte tous les types.
+     */
+    long scan(long fromOffset, long fromTimestamp, long toTimestamp, int typeFilter, boolean verify, long limit,
+              EventRecord record, EventHandler handler) throws IOException {
+        int end = size;
+        ByteBuffer payload = buffer.duplicate();
+        int position = startPosition(fromOffset, fromTimestamp);
+        long count = 0;
+
+        while (position < end && count < limit) {
+            int length = buffer.getInt(position);
+            long offset = buffer.getLong(position + 8);
+            long timestamp = buffer.getLong(position + 16);
+            if (timestamp > toTimestamp) {
+                break;
+            }
+
+            short type = buffer.getShort(position + 24);
+            if (offset >= fromOffset && timestamp >= fromTimestamp && (typeFilter < 0 || type == typeFilter)) {
+                if (verify && !checksumMatches(position, length)) {
+                    throw new IOException("Corrupted record at offset " + offset + " in " + file.getFileName());
+                }
+                payload.limit(position + 8 + length).position(position + HEADER_BYTES);
+                record.set(offset, timestamp, type, payload);
+                handler.onEvent(record);
+                count++;
+            }
+            position += 8 + length;
+        }
+        return count;
+    }
+
+    void force() {
+        buffer.force();
+    }
+
+    void seal() throws IOException {
+        force();
+        writeIndex();
+    }
+
+    // Segment scellé retiré du journal ; le mapping reste valide pour un parcours en cours
+    void delete() throws IOException {
+        Files.deleteIfExists(indexFile);
+        Files.deleteIfExists(file);
+    }
+
+    long fileBytes() {
+        return buffer.capacity();
+    }
+
+    private int startPosition(long fromOffset, long fromTimestamp) {
+        int count = indexCount;
+        int low = 0;
+        int high = count - 1;
+        int found = -1;
+
+        // Dernière entrée strictement avant la borne en temps et en offset
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexTimestamps[mid] < fromTimestamp && indexOffsets[mid] < fromOffset) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found < 0 ? 0 : indexPositions[found];
+    }
+
+    private boolean checksumMatches(int position, int length) {
+        CRC32C check = new CRC32C();
+        check.update(buffer.slice(position + 8, length));
+        return (int) check.getValue() == buffer.getInt(position + 4);
+    }
+
+    private void recover() {
+        int position = 0;
+        int limit = buffer.capacity();
+
+        while (position + HEADER_BYTES <= limit) {
+            int length = buffer.getInt(position);
+            if (length < BODY_HEADER_BYTES || position + 8 + length > limit || !checksumMatches(position, length)) {
+                break;
+            }
+            long offset = buffer.getLong(position + 8);
+            long timestamp = buffer.getLong(position + 16);
+
+            addIndexEntry(position, offset, timestamp);
+            if (firstTimestamp < 0) {
+                firstTimestamp = timestamp;
+            }
+            lastTimestamp = timestamp;
+            nextOffset = offset + 1;
+            position += 8 + length;
+        }
+        size = position;
+    }
+
+    private void addIndexEntry(int position, long offset, long timestamp) {
+        if (lastIndexedPosition >= 0 && position - lastIndexedPosition < indexIntervalBytes) {
+            return;
+        }
+        int count = indexCount;
+        if (count == indexPositions.length) {
+            indexPositions = Arrays.copyOf(indexPositions, count * 2);
+            indexOffsets = Arrays.copyOf(indexOffsets, count * 2);
+            indexTimestamps = Arrays.copyOf(indexTimestamps, count * 2);
+        }
+        indexPositions[count] = position;
+        indexOffsets[count] = offset;
+        indexTimestamps[count] = timestamp;
+        lastIndexedPosition = position;
+        // Publication après écriture de l'entrée (volatile)
+        indexCount = count + 1;
+    }
+
+    private void writeIndex() throws IOException {
+        int count = indexCount;
+        ByteBuffer index = ByteBuffer.allocate(4 + 4 + 8 + 8 + 8 + 4 + count * (4 + 8 + 8));
+        index.putInt(INDEX_MAGIC).putInt(size).putLong(nextOffset).putLong(firstTimestamp).putLong(lastTimestamp).putInt(count);
+        for (int i = 0; i < count; i++) {
+            index.putInt(indexPositions[i]).putLong(indexOffsets[i]).putLong(indexTimestamps[i]);
+        }
+        index.flip();
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (index.hasRemaining()) {
+                channel.write(index);
+            }
+            channel.force(true);
+        }
+    }
+
+    private boolean loadIndex() throws IOException {
+        if (!Files.exists(indexFile)) {
+            return false;
+        }
+        ByteBuffer index = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+        if (index.remaining() < 36 || index.getInt() != INDEX_MAGIC) {
+            return false;
+        }
+        size = index.getInt();
+        nextOffset = index.getLong();
+        firstTimestamp = index.getLong();
+        lastTimestamp = index.getLong();
+        int count = index.getInt();
+
+        indexPositions = new int[Math.max(count, 1)];
+        indexOffsets = new long[Math.max(count, 1)];
+        indexTimestamps = new long[Math.max(count, 1)];
+        for (int i = 0; i < count; i++) {
+            indexPositions[i] = index.getInt();
+            indexOffsets[i] = index.getLong();
+            indexTimestamps[i] = index.getLong();
+        }
+        indexCount = count;
+        return size <= buffer.capacity();
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.ecommerce.fault;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.ConsoleAppender;
+import ch.qos.logback.core.filter.Filter;
+import com.example.ecommerce.accesslog.AccessRollupAppender;
+import jakarta.annotation.PreDestroy;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+// Branche FaultInjector sur les repositories Spring Data et sur les appenders logback ;
+// rien n'est branché quand l'injection est désactivée (profil prod)
+@Configuration
+@ConditionalOnProperty(name = "app.faults.enabled", havingValue = "true", matchIfMissing = true)
+public class FaultInjectionConfig {
+
+    @Autowired
+    private FaultInjector faultInjector;
+
+    private final Map<Appender<ILoggingEvent>, LogFaultFilter> filters = new IdentityHashMap<>();
+
+    /**
+     * Ajoute un intercepteur au proxy de chaque repository, après celui des transactions :
+     * le délai s'écoule connexion empruntée, comme une requête lente. L'injecteur n'est résolu
+     * qu'au premier appel, le post-processeur étant créé avant les autres beans.
+     */
+    @Bean
+    public static BeanPostProcessor repositoryFaultInjection(ObjectProvider<FaultInjector> faultInjector) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repository) -> {
+                                String prefix = repository.getRepositoryInterface().getSimpleName() + ".";
+                                proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+                                    faultInjector.getObject().inject(FaultSeam.REPOSITORY,
+                                                                     prefix + invocation.getMethod().getName());
+                                    return invocation.proceed();
+                                });
+                            }));
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Une fois le contexte prêt : EVENT_LOG et ACCESS_ROLLUP sont branchés par code pendant la création des beans
+    @EventListener(ApplicationReadyEvent.class)
+    synchronized void attachLogFilters() {
+        for (Appender<ILoggingEvent> appender : appenders()) {
+            if (filters.containsKey(appender)) {
+                continue;
+            }
+            LogFaultFilter filter = new LogFaultFilter(faultInjector, appender.getName());
+            filter.start();
+            appender.addFilter(filter);
+            filters.put(appender, filter);
+        }
+    }
+
+    // Les filtres logback ne se retirent pas un par un : on reconstruit la liste sans le nôtre
+    @PreDestroy
+    synchronized void detachLogFilters() {
+        filters.forEach((appender, filter) -> {
+            List<Filter<ILoggingEvent>> remaining = new ArrayList<>(appender.getCopyOfAttachedFiltersList());
+            remaining.remove(filter);
+            appender.clearAllFilters();
+            remaining.forEach(appender::addFilter);
+        });
+        filters.clear();
+    }
+
+    // Appenders de tous les loggers, hors console, et ACCESS_FILE quand ACCESS_ROLLUP l'a pris en charge
+    private static List<Appender<ILoggingEvent>> appenders() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+        Map<Appender<ILoggingEvent>, Boolean> appenders = new IdentityHashMap<>();
+        for (Logger logger : context.getLoggerList()) {
+            for (Iterator<Appender<ILoggingEvent>> it = logger.iteratorForAppenders(); it.hasNext(); ) {
+                Appender<ILoggingEvent> appender = it.next();
+                if (!(appender instanceof ConsoleAppender)) {
+                    appenders.put(appender, true);
+                }
+                if (appender instanceof AccessRollupAppender rollup) {
+                    appenders.put(rollup.target(), true);
+                }
+            }
+        }
+        return new ArrayList<>(appenders.keySet());
+    }
+}
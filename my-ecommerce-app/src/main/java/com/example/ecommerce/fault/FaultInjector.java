@@ -0,0 +1,140 @@
+package com.example.ecommerce.fault;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Fautes actives par point d'injection : délai tiré selon la loi configurée, puis échec avec la
+ * probabilité errorRate. Sans faute configurée, un appel ne coûte qu'une lecture de map.
+ * Les fautes sont remplacées en bloc (copy-on-write) : les appels en cours voient l'ancien jeu ou le nouveau.
+ */
+@Component
+public class FaultInjector {
+
+    private static final Logger logger = LoggerFactory.getLogger(FaultInjector.class);
+    private static final Logger businessLogger = LoggerFactory.getLogger("BUSINESS_LOGGER");
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.faults.enabled:true}")
+    private boolean enabled;
+
+    private volatile Map<FaultSeam, FaultSpec> faults = Map.of();
+
+    private final Map<FaultSeam, Counter> delayedCounters = new EnumMap<>(FaultSeam.class);
+    private final Map<FaultSeam, Counter> failedCounters = new EnumMap<>(FaultSeam.class);
+
+    @PostConstruct
+    void registerMetrics() {
+        for (FaultSeam seam : FaultSeam.values()) {
+            String tag = seam.name().toLowerCase();
+            delayedCounters.put(seam, Counter.builder("faults.injected")
+                    .description("Calls delayed or failed by fault injection")
+                    .tag("seam", tag).tag("kind", "latency")
+                    .register(meterRegistry));
+            failedCounters.put(seam, Counter.builder("faults.injected")
+                    .tag("seam", tag).tag("kind", "error")
+                    .register(meterRegistry));
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public Map<FaultSeam, FaultSpec> faults() {
+        return faults;
+    }
+
+    public synchronized void set(FaultSeam seam, FaultSpec spec) {
+        spec.validate();
+        checkEnabled();
+        Map<FaultSeam, FaultSpec> updated = new EnumMap<>(FaultSeam.class);
+        updated.putAll(faults);
+        updated.put(seam, spec);
+        faults = Map.copyOf(updated);
+        businessLogger.info("{{\"event_type\":\"fault_configured\",\"seam\":\"{}\",\"target\":\"{}\",\"distribution\":\"{}\",\"latency_ms\":{},\"max_latency_ms\":{},\"latency_rate\":{},\"error_rate\":{},\"timestamp\":\"{}\"}}",
+                          seam, spec.target(), spec.distribution(), spec.latencyMs(), spec.maxLatencyMs(),
+                          spec.latencyRate(), spec.errorRate(), java.time.LocalDateTime.now());
+    }
+
+    // Remplace toutes les fautes (étape de scénario)
+    public synchronized void replace(Map<FaultSeam, FaultSpec> specs) {
+        specs.values().forEach(FaultSpec::validate);
+        checkEnabled();
+        faults = Map.copyOf(specs);
+        logger.info("Fault injection updated: {}", specs.keySet());
+    }
+
+    public synchronized void clear() {
+        if (!faults.isEmpty()) {
+            faults = Map.of();
+            businessLogger.info("{{\"event_type\":\"faults_cleared\",\"timestamp\":\"{}\"}}", java.time.LocalDateTime.now());
+        }
+    }
+
+    /**
+     * Point d'injection d'un repository ou du paiement : peut retarder l'appelant et lever
+     * une QueryTimeoutException (repository) ou une InjectedFaultException.
+     */
+    public void inject(FaultSeam seam, String operation) {
+        FaultSpec spec = faults.get(seam);
+        if (spec == null || !spec.matches(operation)) {
+            return;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        delay(seam, spec.sampleDelay(random));
+        if (spec.sampleError(random)) {
+            failedCounters.get(seam).increment();
+            if (seam == FaultSeam.REPOSITORY) {
+                throw new QueryTimeoutException("Injected fault: " + operation + " timed out");
+            }
+            throw new InjectedFaultException(seam, operation);
+        }
+    }
+
+    // Point d'injection d'un appender : false si l'événement doit être perdu (écriture en échec). Ne logue rien.
+    public boolean injectLogging(String appender) {
+        FaultSpec spec = faults.get(FaultSeam.LOGGING);
+        if (spec == null || !spec.matches(appender)) {
+            return true;
+        }
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        delay(FaultSeam.LOGGING, spec.sampleDelay(random));
+        if (spec.sampleError(random)) {
+            failedCounters.get(FaultSeam.LOGGING).increment();
+            return false;
+        }
+        return true;
+    }
+
+    private void delay(FaultSeam seam, long millis) {
+        if (millis <= 0) {
+            return;
+        }
+        delayedCounters.get(seam).increment();
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public void checkEnabled() {
+        if (!enabled) {
+            throw new IllegalStateException("Fault injection is disabled (app.faults.enabled=false)");
+        }
+    }
+}
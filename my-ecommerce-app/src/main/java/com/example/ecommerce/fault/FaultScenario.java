@@ -0,0 +1,35 @@
+package com.example.ecommerce.fault;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Suite d'étapes appliquées à leur décalage depuis le démarrage du scénario ; chaque étape remplace
+ * toutes les fautes et la pression en cours. Tout est levé à durationSeconds.
+ */
+public record FaultScenario(String name, String description, long durationSeconds, List<Step> steps) {
+
+    public record Step(long atSeconds, Map<FaultSeam, FaultSpec> faults, ResourcePressure pressure) {
+
+        public Step {
+            faults = faults == null ? Map.of() : Map.copyOf(faults);
+            pressure = pressure == null ? ResourcePressure.NONE : pressure;
+        }
+    }
+
+    void validate() {
+        if (name == null || name.isBlank()) {
+            throw new IllegalArgumentException("Scenario name is required");
+        }
+        if (steps == null || steps.isEmpty() || durationSeconds <= 0) {
+            throw new IllegalArgumentException("Scenario needs steps and a positive durationSeconds");
+        }
+        for (Step step : steps) {
+            if (step.atSeconds() < 0 || step.atSeconds() >= durationSeconds) {
+                throw new IllegalArgumentException("Step offset must be within [0, durationSeconds)");
+            }
+            step.faults().values().forEach(FaultSpec::validate);
+            step.pressure().validate();
+        }
+    }
+}
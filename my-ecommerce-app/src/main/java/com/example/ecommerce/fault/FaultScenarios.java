@@ -0,0 +1,182 @@
+package com.example.ecommerce.fault;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+import static com.example.ecommerce.fault.LatencyDistribution.EXPONENTIAL;
+import static com.example.ecommerce.fault.LatencyDistribution.FIXED;
+import static com.example.ecommerce.fault.LatencyDistribution.PARETO;
+import static com.example.ecommerce.fault.LatencyDistribution.UNIFORM;
+
+/**
+ * Scénarios de dégradation : étapes de fautes et de pression appliquées à heure fixe depuis le démarrage,
+ * puis tout est levé. Un seul scénario à la fois ; en démarrer un autre arrête le précédent.
+ */
+@Component
+public class FaultScenarios {
+
+    private static final Logger logger = LoggerFactory.getLogger(FaultScenarios.class);
+    private static final Logger businessLogger = LoggerFactory.getLogger("BUSINESS_LOGGER");
+
+    private static final Map<String, FaultScenario> BUILT_IN = builtIn();
+
+    @Autowired
+    private FaultInjector faultInjector;
+
+    @Autowired
+    private PressureGenerator pressureGenerator;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "fault-scenario");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final List<ScheduledFuture<?>> scheduled = new ArrayList<>();
+    private FaultScenario running;
+    private LocalDateTime startedAt;
+    private int currentStep = -1;
+
+    public Collection<FaultScenario> scenarios() {
+        return BUILT_IN.values();
+    }
+
+    public FaultScenario start(String name) {
+        FaultScenario scenario = BUILT_IN.get(name);
+        if (scenario == null) {
+            throw new IllegalArgumentException("Unknown scenario: " + name + " (available: " + BUILT_IN.keySet() + ")");
+        }
+        return start(scenario);
+    }
+
+    public synchronized FaultScenario start(FaultScenario scenario) {
+        scenario.validate();
+        faultInjector.checkEnabled();
+        stop();
+
+        running = scenario;
+        startedAt = LocalDateTime.now();
+        for (int i = 0; i < scenario.steps().size(); i++) {
+            int index = i;
+            FaultScenario.Step step = scenario.steps().get(i);
+            scheduled.add(scheduler.schedule(() -> applyStep(scenario, index, step), step.atSeconds(), TimeUnit.SECONDS));
+        }
+        scheduled.add(scheduler.schedule(() -> finish(scenario), scenario.durationSeconds(), TimeUnit.SECONDS));
+
+        businessLogger.info("{{\"event_type\":\"fault_scenario_started\",\"scenario\":\"{}\",\"duration_s\":{},\"steps\":{},\"timestamp\":\"{}\"}}",
+                          scenario.name(), scenario.durationSeconds(), scenario.steps().size(), startedAt);
+        return scenario;
+    }
+
+    // Arrête le scénario en cours et lève toutes les fautes et la pression
+    public synchronized void stop() {
+        scheduled.forEach(future -> future.cancel(false));
+        scheduled.clear();
+        if (running != null) {
+            businessLogger.info("{{\"event_type\":\"fault_scenario_stopped\",\"scenario\":\"{}\",\"timestamp\":\"{}\"}}",
+                              running.name(), LocalDateTime.now());
+        }
+        running = null;
+        startedAt = null;
+        currentStep = -1;
+        faultInjector.clear();
+        pressureGenerator.stop();
+    }
+
+    public synchronized Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("scenario", running == null ? null : running.name());
+        status.put("startedAt", startedAt);
+        status.put("step", currentStep);
+        status.put("faults", faultInjector.faults());
+        status.put("pressure", pressureGenerator.current());
+        status.put("enabled", faultInjector.isEnabled());
+        return status;
+    }
+
+    private synchronized void applyStep(FaultScenario scenario, int index, FaultScenario.Step step) {
+        if (running != scenario) {
+            return;
+        }
+        try {
+            faultInjector.replace(step.faults());
+            pressureGenerator.apply(step.pressure());
+            currentStep = index;
+            logger.info("Fault scenario {} step {} applied", scenario.name(), index);
+        } catch (Exception e) {
+            logger.error("Fault scenario {} step {} failed: {}", scenario.name(), index, e.getMessage());
+        }
+    }
+
+    private synchronized void finish(FaultScenario scenario) {
+        if (running == scenario) {
+            stop();
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private static Map<String, FaultScenario> builtIn() {
+        Map<String, FaultScenario> scenarios = new LinkedHashMap<>();
+        add(scenarios, new FaultScenario("slow-database", "Repository calls slow down, then start timing out",
+                120, List.of(
+                        new FaultScenario.Step(0, Map.of(FaultSeam.REPOSITORY,
+                                new FaultSpec(null, EXPONENTIAL, 20, 1000, 1.0, 0)), null),
+                        new FaultScenario.Step(40, Map.of(FaultSeam.REPOSITORY,
+                                new FaultSpec(null, PARETO, 50, 5000, 1.0, 0)), null),
+                        new FaultScenario.Step(80, Map.of(FaultSeam.REPOSITORY,
+                                new FaultSpec(null, PARETO, 100, 10000, 1.0, 0.05)), null))));
+        add(scenarios, new FaultScenario("flaky-payment", "Payment gateway is slow and fails 30% of the time",
+                90, List.of(
+                        new FaultScenario.Step(0, Map.of(FaultSeam.PAYMENT,
+                                new FaultSpec(null, UNIFORM, 200, 3000, 1.0, 0.3)), null))));
+        add(scenarios, new FaultScenario("slow-catalog", "Only product reads are slow: exercises the catalog cache",
+                90, List.of(
+                        new FaultScenario.Step(0, Map.of(FaultSeam.REPOSITORY,
+                                new FaultSpec("ProductRepository", FIXED, 300, 0, 1.0, 0)), null))));
+        add(scenarios, new FaultScenario("pool-exhaustion", "Most JDBC connections are held, then all of them",
+                90, List.of(
+                        new FaultScenario.Step(0, null, new ResourcePressure(0, 0, 0, 0, 6)),
+                        new FaultScenario.Step(45, null, new ResourcePressure(0, 0, 0, 0, 64)))));
+        add(scenarios, new FaultScenario("memory-pressure", "Retained heap plus a high allocation rate for the GC",
+                90, List.of(
+                        new FaultScenario.Step(0, null, new ResourcePressure(0, 0, 128, 200, 0)))));
+        add(scenarios, new FaultScenario("brownout", "Slow database, flaky payment, then CPU contention and slow log writes",
+                180, List.of(
+                        new FaultScenario.Step(0, Map.of(
+                                FaultSeam.REPOSITORY, new FaultSpec(null, EXPONENTIAL, 10, 500, 1.0, 0),
+                                FaultSeam.PAYMENT, new FaultSpec(null, UNIFORM, 100, 1000, 1.0, 0.1)), null),
+                        new FaultScenario.Step(60, Map.of(
+                                FaultSeam.REPOSITORY, new FaultSpec(null, EXPONENTIAL, 30, 2000, 1.0, 0.01),
+                                FaultSeam.PAYMENT, new FaultSpec(null, UNIFORM, 500, 3000, 1.0, 0.2)),
+                                new ResourcePressure(2, 80, 0, 50, 0)),
+                        new FaultScenario.Step(120, Map.of(
+                                FaultSeam.REPOSITORY, new FaultSpec(null, EXPONENTIAL, 30, 2000, 1.0, 0.01),
+                                FaultSeam.PAYMENT, new FaultSpec(null, UNIFORM, 500, 3000, 1.0, 0.2),
+                                FaultSeam.LOGGING, new FaultSpec(null, EXPONENTIAL, 5, 200, 0.2, 0)),
+                                new ResourcePressure(2, 80, 0, 50, 0)))));
+        return scenarios;
+    }
+
+    private static void add(Map<String, FaultScenario> scenarios, FaultScenario scenario) {
+        scenario.validate();
+        scenarios.put(scenario.name(), scenario);
+    }
+}
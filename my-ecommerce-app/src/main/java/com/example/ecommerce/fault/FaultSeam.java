@@ -0,0 +1,17 @@
+package com.example.ecommerce.fault;
+
+// Points d'injection : appels aux repositories Spring Data, paiement d'une commande, appenders logback
+public enum FaultSeam {
+    REPOSITORY,
+    PAYMENT,
+    LOGGING;
+
+    public static FaultSeam of(String name) {
+        for (FaultSeam seam : values()) {
+            if (seam.name().equalsIgnoreCase(name)) {
+                return seam;
+            }
+        }
+        throw new IllegalArgumentException("Unknown fault seam: " + name + " (available: repository, payment, logging)");
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.ecommerce.fault;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Faute injectée sur un point d'injection. target restreint l'injection aux opérations qui le
+ * contiennent (ProductRepository, ProductRepository.findById, ACCESS_FILE...) ; null = toutes.
+ * latencyRate est la part des appels retardés (1 par défaut), errorRate celle des appels en échec.
+ */
+public record FaultSpec(String target, LatencyDistribution distribution, long latencyMs, long maxLatencyMs,
+                        Double latencyRate, double errorRate) {
+
+    public FaultSpec {
+        if (distribution == null) {
+            distribution = LatencyDistribution.FIXED;
+        }
+        if (latencyRate == null) {
+            latencyRate = 1.0;
+        }
+    }
+
+    void validate() {
+        if (latencyMs < 0 || maxLatencyMs < 0) {
+            throw new IllegalArgumentException("latencyMs and maxLatencyMs must be >= 0");
+        }
+        if (distribution == LatencyDistribution.UNIFORM && maxLatencyMs < latencyMs) {
+            throw new IllegalArgumentException("UNIFORM latency requires maxLatencyMs >= latencyMs");
+        }
+        if (latencyRate < 0 || latencyRate > 1 || errorRate < 0 || errorRate > 1) {
+            throw new IllegalArgumentException("latencyRate and errorRate must be between 0 and 1");
+        }
+    }
+
+    boolean matches(String operation) {
+        return target == null || operation.contains(target);
+    }
+
+    long sampleDelay(ThreadLocalRandom random) {
+        if ((latencyMs == 0 && maxLatencyMs == 0) || random.nextDouble() >= latencyRate) {
+            return 0;
+        }
+        return distribution.sample(latencyMs, maxLatencyMs, random);
+    }
+
+    boolean sampleError(ThreadLocalRandom random) {
+        return errorRate > 0 && random.nextDouble() < errorRate;
+    }
+}
@@ -0,0 +1,16 @@
+package com.example.ecommerce.fault;
+
+// Échec provoqué par l'injection de fautes (hors repositories, qui lèvent une QueryTimeoutException)
+public class InjectedFaultException extends RuntimeException {
+
+    private final FaultSeam seam;
+
+    public InjectedFaultException(FaultSeam seam, String operation) {
+        super("Injected fault: " + operation + " failed");
+        this.seam = seam;
+    }
+
+    public FaultSeam getSeam() {
+        return seam;
+    }
+}
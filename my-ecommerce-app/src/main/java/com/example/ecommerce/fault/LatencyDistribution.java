@@ -0,0 +1,29 @@
+package com.example.ecommerce.fault;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+// Loi du délai ajouté à un appel : latencyMs en est la valeur, le minimum ou la moyenne, maxLatencyMs le plafond
+public enum LatencyDistribution {
+
+    // Toujours latencyMs
+    FIXED,
+    // Uniforme entre latencyMs et maxLatencyMs
+    UNIFORM,
+    // Exponentielle de moyenne latencyMs
+    EXPONENTIAL,
+    // Pareto de minimum latencyMs et d'indice 1,5 : la plupart des appels proches du minimum, une longue traîne
+    PARETO;
+
+    private static final double PARETO_SHAPE = 1.5;
+
+    long sample(long latencyMs, long maxLatencyMs, ThreadLocalRandom random) {
+        long cap = maxLatencyMs > 0 ? maxLatencyMs : Long.MAX_VALUE;
+        double delay = switch (this) {
+            case FIXED -> latencyMs;
+            case UNIFORM -> latencyMs + random.nextDouble() * Math.max(0, maxLatencyMs - latencyMs);
+            case EXPONENTIAL -> -latencyMs * Math.log(1 - random.nextDouble());
+            case PARETO -> latencyMs / Math.pow(1 - random.nextDouble(), 1 / PARETO_SHAPE);
+        };
+        return Math.min(cap, Math.round(delay));
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.ecommerce.fault;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+// Filtre posé sur un appender : un échec perd l'événement. Les filtres passent avant le verrou d'écriture
+// (RollingFileAppender est un UnsynchronizedAppenderBase) : le délai ralentit le thread qui journalise,
+// sans bloquer l'écriture des autres threads comme le ferait un disque lent. Exception : EVENT_LOG et
+// ACCESS_ROLLUP étendent AppenderBase, dont doAppend est synchronisé ; les autres threads y attendent le délai
+public class LogFaultFilter extends Filter<ILoggingEvent> {
+
+    private final FaultInjector faultInjector;
+    private final String appender;
+
+    public LogFaultFilter(FaultInjector faultInjector, String appender) {
+        this.faultInjector = faultInjector;
+        this.appender = appender;
+        setName("FAULT_INJECTION");
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        return faultInjector.injectLogging(appender) ? FilterReply.NEUTRAL : FilterReply.DENY;
+    }
+}
@@ -0,0 +1,169 @@
+package com.example.ecommerce.fault;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Applique une ResourcePressure avec des threads démons (fault-cpu-i, fault-alloc, fault-pool) ;
+ * une nouvelle pression remplace la précédente. Le tas retenu est plafonné à la moitié du tas maximal
+ * et les connexions gardées à la taille du pool, pour dégrader l'application sans la tuer.
+ */
+@Component
+public class PressureGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(PressureGenerator.class);
+
+    private static final int MEGABYTE = 1024 * 1024;
+    private static final long WINDOW_MILLIS = 100;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private ResourcePressure current = ResourcePressure.NONE;
+    private final List<Thread> threads = new ArrayList<>();
+    private List<byte[]> retained = List.of();
+    private volatile boolean running;
+
+    // Empêche le JIT d'éliminer les boucles et allocations sans effet
+    private static volatile long sink;
+
+    public synchronized ResourcePressure current() {
+        return current;
+    }
+
+    public synchronized void apply(ResourcePressure pressure) {
+        pressure.validate();
+        long maxRetained = Runtime.getRuntime().maxMemory() / 2 / MEGABYTE;
+        if (pressure.heapMegabytes() > maxRetained) {
+            throw new IllegalArgumentException("heapMegabytes must be <= " + maxRetained + " (half of the max heap)");
+        }
+        stop();
+        if (pressure.isNone()) {
+            return;
+        }
+
+        running = true;
+        current = pressure;
+        List<byte[]> chunks = new ArrayList<>(pressure.heapMegabytes());
+        for (int i = 0; i < pressure.heapMegabytes(); i++) {
+            chunks.add(new byte[MEGABYTE]);
+        }
+        retained = chunks;
+        for (int i = 0; i < pressure.cpuThreads(); i++) {
+            start("fault-cpu-" + (i + 1), () -> burnCpu(pressure.cpuPercent()));
+        }
+        if (pressure.allocationMegabytesPerSecond() > 0) {
+            start("fault-alloc", () -> allocate(pressure.allocationMegabytesPerSecond()));
+        }
+        if (pressure.heldConnections() > 0) {
+            start("fault-pool", () -> holdConnections(pressure.heldConnections()));
+        }
+        logger.warn("Resource pressure applied: {}", pressure);
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        for (Thread thread : threads) {
+            thread.interrupt();
+        }
+        for (Thread thread : threads) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        threads.clear();
+        retained = List.of();
+        if (!current.isNone()) {
+            logger.info("Resource pressure released: {}", current);
+        }
+        current = ResourcePressure.NONE;
+    }
+
+    private void start(String name, Runnable task) {
+        Thread thread = new Thread(task, name);
+        thread.setDaemon(true);
+        thread.start();
+        threads.add(thread);
+    }
+
+    // Occupé cpuPercent % de chaque fenêtre de 100 ms
+    private void burnCpu(int cpuPercent) {
+        long busyNanos = WINDOW_MILLIS * 1_000_000L * cpuPercent / 100;
+        long value = 0;
+        while (running) {
+            long end = System.nanoTime() + busyNanos;
+            while (System.nanoTime() < end) {
+                value = value * 6364136223846793005L + 1442695040888963407L;
+            }
+            sink = value;
+            if (!pause(WINDOW_MILLIS - busyNanos / 1_000_000L)) {
+                return;
+            }
+        }
+    }
+
+    // Déchets de courte durée de vie, répartis sur chaque fenêtre de 100 ms
+    private void allocate(int megabytesPerSecond) {
+        int chunksPerWindow = Math.max(1, megabytesPerSecond * 16 / 10);
+        while (running) {
+            for (int i = 0; i < chunksPerWindow; i++) {
+                byte[] chunk = new byte[MEGABYTE / 16];
+                chunk[i % chunk.length] = 1;
+                sink += chunk.length;
+            }
+            if (!pause(WINDOW_MILLIS)) {
+                return;
+            }
+        }
+    }
+
+    // Emprunte les connexions une par une (attente du pool comprise) et les garde jusqu'à l'arrêt
+    private void holdConnections(int count) {
+        int limit = dataSource instanceof HikariDataSource hikari ? Math.min(count, hikari.getMaximumPoolSize()) : count;
+        List<Connection> held = new ArrayList<>(limit);
+        try {
+            while (running && held.size() < limit) {
+                held.add(dataSource.getConnection());
+            }
+            logger.warn("Holding {} JDBC connections", held.size());
+            while (running && pause(WINDOW_MILLIS)) {
+                // connexions gardées
+            }
+        } catch (SQLException e) {
+            logger.warn("Could not borrow more JDBC connections ({} held): {}", held.size(), e.getMessage());
+            while (running && pause(WINDOW_MILLIS)) {
+                // connexions déjà obtenues gardées
+            }
+        } finally {
+            for (Connection connection : held) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    logger.warn("Could not return JDBC connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private boolean pause(long millis) {
+        try {
+            Thread.sleep(Math.max(0, millis));
+            return true;
+        } catch (InterruptedException e) {
+            return false;
+        }
+    }
+}
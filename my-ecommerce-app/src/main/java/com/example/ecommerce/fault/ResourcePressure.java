@@ -0,0 +1,25 @@
+package com.example.ecommerce.fault;
+
+/**
+ * Pression sur les ressources du processus : cpuThreads threads occupés à cpuPercent % du temps,
+ * heapMegabytes Mo retenus dans le tas, allocationMegabytesPerSecond Mo/s de déchets pour le GC,
+ * heldConnections connexions du pool JDBC empruntées et gardées.
+ */
+public record ResourcePressure(int cpuThreads, int cpuPercent, int heapMegabytes,
+                               int allocationMegabytesPerSecond, int heldConnections) {
+
+    public static final ResourcePressure NONE = new ResourcePressure(0, 0, 0, 0, 0);
+
+    void validate() {
+        if (cpuThreads < 0 || heapMegabytes < 0 || allocationMegabytesPerSecond < 0 || heldConnections < 0) {
+            throw new IllegalArgumentException("Pressure values must be >= 0");
+        }
+        if (cpuPercent < 0 || cpuPercent > 100) {
+            throw new IllegalArgumentException("cpuPercent must be between 0 and 100");
+        }
+    }
+
+    boolean isNone() {
+        return cpuThreads == 0 && heapMegabytes == 0 && allocationMegabytesPerSecond == 0 && heldConnections == 0;
+    }
+}
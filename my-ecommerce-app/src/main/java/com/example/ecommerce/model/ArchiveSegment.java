@@ -0,0 +1,95 @@
+package com.example.ecommerce.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+// Segment d'archive des commandes (fichier NDJSON gzip immuable) : la ligne est enregistrée
+// dans la transaction qui supprime les commandes de leur shard, un fichier sans ligne est orphelin
+@Entity
+@Table(name = "order_archive_segments", schema = "PUBLIC")
+public class ArchiveSegment {
+    
+    @Id
+    @Column(length = 200)
+    private String fileName;
+    
+    @Column(nullable = false)
+    private Integer orders;
+    
+    @Column(nullable = false)
+    private Long firstOrderId;
+    
+    @Column(nullable = false)
+    private Long lastOrderId;
+    
+    @Column(nullable = false)
+    private LocalDate firstDay;
+    
+    @Column(nullable = false)
+    private LocalDate lastDay;
+    
+    @Column(nullable = false)
+    private Long bytes;
+    
+    // Données d'élagage : statuts présents (liste triée, séparée par des virgules) et filtre de Bloom
+    // des emails clients. Null pour un segment écrit avant leur ajout : il est toujours lu
+    @Column(length = 200)
+    private String statuses;
+    
+    @Lob
+    @JsonIgnore
+    private byte[] customerFilter;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public ArchiveSegment() {}
+    
+    public ArchiveSegment(String fileName, Integer orders, Long firstOrderId, Long lastOrderId,
+                          LocalDate firstDay, LocalDate lastDay, Long bytes, String statuses, byte[] customerFilter) {
+        this.fileName = fileName;
+        this.orders = orders;
+        this.firstOrderId = firstOrderId;
+        this.lastOrderId = lastOrderId;
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.bytes = bytes;
+        this.statuses = statuses;
+        this.customerFilter = customerFilter;
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public String getFileName() { return fileName; }
+    public void setFileName(String fileName) { this.fileName = fileName; }
+    
+    public Integer getOrders() { return orders; }
+    public void setOrders(Integer orders) { this.orders = orders; }
+    
+    public Long getFirstOrderId() { return firstOrderId; }
+    public void setFirstOrderId(Long firstOrderId) { this.firstOrderId = firstOrderId; }
+    
+    public Long getLastOrderId() { return lastOrderId; }
+    public void setLastOrderId(Long lastOrderId) { this.lastOrderId = lastOrderId; }
+    
+    public LocalDate getFirstDay() { return firstDay; }
+    public void setFirstDay(LocalDate firstDay) { this.firstDay = firstDay; }
+    
+    public LocalDate getLastDay() { return lastDay; }
+    public void setLastDay(LocalDate lastDay) { this.lastDay = lastDay; }
+    
+    public Long getBytes() { return bytes; }
+    public void setBytes(Long bytes) { this.bytes = bytes; }
+    
+    public String getStatuses() { return statuses; }
+    public void setStatuses(String statuses) { this.statuses = statuses; }
+    
+    public byte[] getCustomerFilter() { return customerFilter; }
+    public void setCustomerFilter(byte[] customerFilter) { this.customerFilter = customerFilter; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
@@ -0,0 +1,39 @@
+package com.example.ecommerce.model;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Dernier offset de l'outbox acquitté par un consommateur (relais ou client externe)
+@Entity
+@Table(name = "outbox_consumer_offsets", schema = "PUBLIC")
+public class ConsumerOffset {
+    
+    @Id
+    @Column(length = 100)
+    private String consumer;
+    
+    @Column(nullable = false)
+    private Long lastOffset;
+    
+    @Column(nullable = false)
+    private LocalDateTime updatedAt;
+    
+    // Constructors
+    public ConsumerOffset() {}
+    
+    public ConsumerOffset(String consumer, Long lastOffset) {
+        this.consumer = consumer;
+        this.lastOffset = lastOffset;
+        this.updatedAt = LocalDateTime.now();
+    }
+    
+    // Getters and Setters
+    public String getConsumer() { return consumer; }
+    public void setConsumer(String consumer) { this.consumer = consumer; }
+    
+    public Long getLastOffset() { return lastOffset; }
+    public void setLastOffset(Long lastOffset) { this.lastOffset = lastOffset; }
+    
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
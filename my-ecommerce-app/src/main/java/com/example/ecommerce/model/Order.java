@@ -4,12 +4,17 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
+// Table répartie dans les schémas SHARD_i (voir sharding.ShardManager) : résolue dans le schéma
+// du shard de la transaction. Identifiants tirés d'une séquence commune, uniques entre les shards.
 @Entity
 @Table(name = "orders")
 public class Order {
     
+    public static final int ID_ALLOCATION_SIZE = 50;
+    
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_seq")
+    @SequenceGenerator(name = "orders_seq", sequenceName = "orders_seq", schema = "PUBLIC", allocationSize = ID_ALLOCATION_SIZE)
     private Long id;
     
     @Column(nullable = false)
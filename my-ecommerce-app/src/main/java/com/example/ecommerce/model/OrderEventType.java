@@ -0,0 +1,13 @@
+package com.example.ecommerce.model;
+
+public enum OrderEventType {
+    ORDER_CREATED,
+    PAYMENT_PROCESSED,
+    PAYMENT_FAILED,
+    ORDER_STATUS_UPDATED;
+    
+    // Même nommage que les event_type des logs métier
+    public String eventName() {
+        return name().toLowerCase();
+    }
+}
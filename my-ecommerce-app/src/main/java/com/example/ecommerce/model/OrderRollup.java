@@ -0,0 +1,83 @@
+package com.example.ecommerce.model;
+
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+// Agrégat par jour, produit et statut des commandes archivées : reste interrogeable en SQL
+// une fois les commandes sorties des shards
+@Entity
+@Table(name = "order_rollups", schema = "PUBLIC",
+       uniqueConstraints = @UniqueConstraint(name = "uk_order_rollups_key", columnNames = {"order_day", "product_id", "status"}),
+       indexes = @Index(name = "idx_order_rollups_status", columnList = "status, order_day"))
+public class OrderRollup {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "order_day", nullable = false)
+    private LocalDate day;
+    
+    @Column(name = "product_id", nullable = false)
+    private Long productId;
+    
+    @Column(nullable = false)
+    private String category;
+    
+    @Column(nullable = false)
+    private String status;
+    
+    @Column(nullable = false)
+    private Long orders;
+    
+    @Column(nullable = false)
+    private Long quantity;
+    
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal revenue;
+    
+    // Constructors
+    public OrderRollup() {}
+    
+    public OrderRollup(LocalDate day, Long productId, String category, String status) {
+        this.day = day;
+        this.productId = productId;
+        this.category = category;
+        this.status = status;
+        this.orders = 0L;
+        this.quantity = 0L;
+        this.revenue = BigDecimal.ZERO;
+    }
+    
+    public void add(Order order) {
+        orders++;
+        quantity += order.getQuantity();
+        revenue = revenue.add(order.getTotalAmount());
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    public LocalDate getDay() { return day; }
+    public void setDay(LocalDate day) { this.day = day; }
+    
+    public Long getProductId() { return productId; }
+    public void setProductId(Long productId) { this.productId = productId; }
+    
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+    
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    
+    public Long getOrders() { return orders; }
+    public void setOrders(Long orders) { this.orders = orders; }
+    
+    public Long getQuantity() { return quantity; }
+    public void setQuantity(Long quantity) { this.quantity = quantity; }
+    
+    public BigDecimal getRevenue() { return revenue; }
+    public void setRevenue(BigDecimal revenue) { this.revenue = revenue; }
+}
@@ -0,0 +1,68 @@
+package com.example.ecommerce.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+// Événement de commande écrit dans la même transaction que la commande (pattern outbox).
+// L'offset des consommateurs n'est pas l'identifiant : il est attribué après commit par OutboxSequencer,
+// dans l'ordre, si bien qu'une transaction validée en retard ne laisse jamais de trou derrière un lecteur.
+@Entity
+@Table(name = "order_outbox", schema = "PUBLIC")
+public class OutboxEvent {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    // Nul tant que l'événement n'a pas été séquencé (invisible des consommateurs)
+    @Column(name = "log_offset", unique = true)
+    private Long logOffset;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 32)
+    private OrderEventType eventType;
+    
+    @Column(nullable = false)
+    private Long orderId;
+    
+    @JsonRawValue
+    @Column(nullable = false, length = 4000)
+    private String payload;
+    
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+    
+    // Constructors
+    public OutboxEvent() {
+        this.createdAt = LocalDateTime.now();
+    }
+    
+    public OutboxEvent(OrderEventType eventType, Long orderId, String payload) {
+        this();
+        this.eventType = eventType;
+        this.orderId = orderId;
+        this.payload = payload;
+    }
+    
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    
+    @JsonProperty("offset")
+    public Long getLogOffset() { return logOffset; }
+    public void setLogOffset(Long logOffset) { this.logOffset = logOffset; }
+    
+    public OrderEventType getEventType() { return eventType; }
+    public void setEventType(OrderEventType eventType) { this.eventType = eventType; }
+    
+    public Long getOrderId() { return orderId; }
+    public void setOrderId(Long orderId) { this.orderId = orderId; }
+    
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+}
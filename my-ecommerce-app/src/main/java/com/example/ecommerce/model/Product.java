@@ -4,7 +4,7 @@ import jakarta.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
-@Table(name = "products")
+@Table(name = "products", schema = "PUBLIC", indexes = @Index(name = "idx_products_category", columnList = "category"))
 public class Product {
     
     @Id
@@ -0,0 +1,66 @@
+package com.example.ecommerce.outbox;
+
+import com.example.ecommerce.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Écrit les événements dans des segments NDJSON nommés par leur premier offset
+ * (segment-00000000000000000001.ndjson). Un segment est fermé au-delà de max-segment-bytes ;
+ * chaque lot est forcé sur disque avant acquittement.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file", matchIfMissing = true)
+public class FileSegmentSink implements OutboxSink {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FileSegmentSink.class);
+    
+    @Value("${app.outbox.file.directory:outbox}")
+    private String directory;
+    
+    @Value("${app.outbox.file.max-segment-bytes:67108864}")
+    private long maxSegmentBytes;
+    
+    private FileChannel segment;
+    
+    @Override
+    public String name() {
+        return "file";
+    }
+    
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) throws IOException {
+        if (segment == null || segment.size() >= maxSegmentBytes) {
+            roll(batch.get(0).getLogOffset());
+        }
+        
+        ByteBuffer buffer = ByteBuffer.wrap(JsonLines.encode(batch));
+        while (buffer.hasRemaining()) {
+            segment.write(buffer);
+        }
+        segment.force(false);
+    }
+    
+    private void roll(long firstOffset) throws IOException {
+        if (segment != null) {
+            segment.close();
+        }
+        Path dir = Paths.get(directory);
+        Files.createDirectories(dir);
+        Path file = dir.resolve(String.format("segment-%020d.ndjson", firstOffset));
+        segment = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+        logger.info("Outbox segment opened: {}", file.toAbsolutePath());
+    }
+}
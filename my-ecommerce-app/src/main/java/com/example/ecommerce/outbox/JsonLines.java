@@ -0,0 +1,26 @@
+package com.example.ecommerce.outbox;
+
+import com.example.ecommerce.model.OutboxEvent;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+// Encodage commun des sinks : une ligne JSON par événement, le payload est déjà du JSON
+final class JsonLines {
+    
+    private JsonLines() {}
+    
+    static byte[] encode(List<OutboxEvent> batch) {
+        StringBuilder lines = new StringBuilder(batch.size() * 512);
+        for (OutboxEvent event : batch) {
+            lines.append("{\"offset\":").append(event.getLogOffset())
+                 .append(",\"event_type\":\"").append(event.getEventType().eventName())
+                 .append("\",\"order_id\":").append(event.getOrderId())
+                 .append(",\"created_at\":\"").append(event.getCreatedAt())
+                 .append("\",\"log_type\":\"business\",\"source\":\"outbox\",\"application\":\"ecommerce-demo\"")
+                 .append(",\"payload\":").append(event.getPayload())
+                 .append("}\n");
+        }
+        return lines.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,51 @@
+package com.example.ecommerce.outbox;
+
+import com.example.ecommerce.model.OutboxEvent;
+import com.example.ecommerce.service.OutboxService;
+
+import java.util.List;
+
+/**
+ * Position d'un lecteur de l'outbox (relais, rapports). Les offsets sont attribués après commit et dans
+ * l'ordre par OutboxSequencer : il n'y a pas de trou à attendre ni à sauter, le lecteur reprend simplement
+ * après le dernier offset traité. La position n'avance qu'une fois le lot traité sans erreur.
+ */
+public class OutboxCursor {
+
+    @FunctionalInterface
+    public interface BatchHandler {
+        void handle(List<OutboxEvent> batch) throws Exception;
+    }
+
+    private final OutboxService outboxService;
+    private volatile long offset;
+
+    public OutboxCursor(OutboxService outboxService, long offset) {
+        this.outboxService = outboxService;
+        this.offset = offset;
+    }
+
+    public long offset() {
+        return offset;
+    }
+
+    public long lag() {
+        return Math.max(0, outboxService.latestOffset() - offset);
+    }
+
+    // Traite les lots jusqu'à la fin de l'outbox ; retourne le nombre d'événements traités
+    public long drain(int batchSize, BatchHandler handler) throws Exception {
+        long processed = 0;
+        List<OutboxEvent> batch;
+        do {
+            batch = outboxService.readAfter(offset, batchSize);
+            if (batch.isEmpty()) {
+                break;
+            }
+            handler.handle(batch);
+            offset = batch.get(batch.size() - 1).getLogOffset();
+            processed += batch.size();
+        } while (batch.size() == batchSize);
+        return processed;
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.ecommerce.outbox;
+
+import com.example.ecommerce.model.OutboxEvent;
+import com.example.ecommerce.service.OutboxService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Relaie les événements de l'outbox vers le sink configuré, par lots et dans l'ordre des offsets (OutboxCursor).
+ * L'offset n'est acquitté qu'après publication : après une panne, le dernier lot est republié.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.relay.enabled", havingValue = "true", matchIfMissing = true)
+public class OutboxRelay {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxRelay.class);
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private OutboxSink sink;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${app.outbox.relay.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.outbox.retention:7d}")
+    private Duration retention;
+
+    private final AtomicLong lag = new AtomicLong();
+    private Counter publishedCounter;
+    private Counter failureCounter;
+    private Timer batchTimer;
+
+    @PostConstruct
+    void registerMetrics() {
+        publishedCounter = Counter.builder("outbox.events.published")
+                .description("Events delivered to the outbox sink")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+        failureCounter = Counter.builder("outbox.publish.failures")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+        batchTimer = Timer.builder("outbox.batch.duration")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+        Gauge.builder("outbox.lag", lag, AtomicLong::get)
+                .description("Events appended but not yet relayed")
+                .tag("sink", sink.name())
+                .register(meterRegistry);
+    }
+
+    public String consumerName() {
+        return "relay-" + sink.name();
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay.interval:1000}")
+    public void relay() {
+        String consumer = consumerName();
+        OutboxCursor cursor = new OutboxCursor(outboxService, outboxService.committedOffset(consumer));
+
+        try {
+            cursor.drain(batchSize, batch -> {
+                long startTime = System.nanoTime();
+                sink.publish(batch);
+                outboxService.commit(consumer, batch.get(batch.size() - 1).getLogOffset());
+
+                batchTimer.record(Duration.ofNanos(System.nanoTime() - startTime));
+                publishedCounter.increment(batch.size());
+            });
+
+        } catch (Exception e) {
+            failureCounter.increment();
+            logger.warn("Outbox relay to {} failed at offset {}: {}", sink.name(), cursor.offset(), e.getMessage());
+        }
+
+        lag.set(cursor.lag());
+    }
+
+    @Scheduled(cron = "${app.outbox.purge-cron:0 0 * * * *}")
+    public void purge() {
+        outboxService.purgeRelayed(LocalDateTime.now().minus(retention));
+    }
+}
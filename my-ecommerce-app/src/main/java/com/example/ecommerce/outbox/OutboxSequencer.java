@@ -0,0 +1,49 @@
+package com.example.ecommerce.outbox;
+
+import com.example.ecommerce.service.OutboxService;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Attribue les offsets de l'outbox après commit. Les identifiants sont pris à l'insertion mais visibles
+ * au commit, dans un autre ordre : les utiliser comme offsets obligerait les lecteurs à deviner si un trou
+ * appartient à une transaction en cours ou annulée. Seuls les événements validés sont séquencés, par un seul
+ * thread, si bien que les offsets sont denses et qu'aucun événement n'apparaît derrière un lecteur.
+ * Actif même sans relais : les consommateurs pull et les rapports lisent aussi par offset.
+ */
+@Component
+public class OutboxSequencer {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxSequencer.class);
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Value("${app.outbox.sequence-batch:1000}")
+    private int batchSize;
+
+    @PostConstruct
+    void sequenceExisting() {
+        int sequenced = outboxService.sequenceExistingById();
+        if (sequenced > 0) {
+            logger.info("Outbox events written before sequencing numbered by id: {}", sequenced);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.sequence-interval:200}")
+    public synchronized void sequence() {
+        try {
+            int count;
+            do {
+                count = outboxService.sequence(batchSize);
+            } while (count == batchSize);
+        } catch (Exception e) {
+            logger.warn("Outbox sequencing failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.example.ecommerce.outbox;
+
+import com.example.ecommerce.model.OutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination des événements relayés depuis l'outbox.
+ * publish ne doit rendre la main qu'une fois le lot livré : l'offset est acquitté juste après.
+ * Un lot peut être republié après une panne (livraison au moins une fois) ; les consommateurs
+ * dédoublonnent sur l'offset.
+ */
+public interface OutboxSink {
+    
+    String name();
+    
+    void publish(List<OutboxEvent> batch) throws IOException;
+}
@@ -0,0 +1,78 @@
+package com.example.ecommerce.outbox;
+
+import com.example.ecommerce.model.OutboxEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.List;
+
+/**
+ * Envoie les événements en json_lines sur TCP, par exemple vers l'input tcp de Logstash (port 5000).
+ * Le protocole n'a pas d'accusé de réception : un lot est considéré livré une fois écrit et vidé
+ * dans la socket. En cas d'erreur la connexion est fermée et le lot sera renvoyé au prochain passage.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "tcp")
+public class TcpJsonLinesSink implements OutboxSink {
+    
+    private static final Logger logger = LoggerFactory.getLogger(TcpJsonLinesSink.class);
+    
+    @Value("${app.outbox.tcp.host:localhost}")
+    private String host;
+    
+    @Value("${app.outbox.tcp.port:5000}")
+    private int port;
+    
+    @Value("${app.outbox.tcp.connect-timeout-ms:2000}")
+    private int connectTimeoutMs;
+    
+    private Socket socket;
+    private OutputStream out;
+    
+    @Override
+    public String name() {
+        return "tcp";
+    }
+    
+    @Override
+    public synchronized void publish(List<OutboxEvent> batch) throws IOException {
+        try {
+            if (socket == null) {
+                connect();
+            }
+            out.write(JsonLines.encode(batch));
+            out.flush();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+    
+    private void connect() throws IOException {
+        Socket newSocket = new Socket();
+        newSocket.setTcpNoDelay(true);
+        newSocket.connect(new InetSocketAddress(host, port), connectTimeoutMs);
+        socket = newSocket;
+        out = newSocket.getOutputStream();
+        logger.info("Outbox connected to {}:{}", host, port);
+    }
+    
+    private void close() {
+        try {
+            if (socket != null) {
+                socket.close();
+            }
+        } catch (IOException e) {
+            logger.debug("Error closing outbox socket: {}", e.getMessage());
+        }
+        socket = null;
+        out = null;
+    }
+}
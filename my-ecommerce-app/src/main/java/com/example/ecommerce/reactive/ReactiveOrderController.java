@@ -0,0 +1,46 @@
+package com.example.ecommerce.reactive;
+
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.service.OrderService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+@RestController
+@RequestMapping(value = "/api/orders", produces = MediaType.APPLICATION_NDJSON_VALUE)
+@CrossOrigin(origins = "*")
+public class ReactiveOrderController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveOrderController.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("ACCESS_LOGGER");
+
+    @Autowired
+    private OrderService orderService;
+
+    @GetMapping("/customer/{email}")
+    public Flux<Order> streamOrdersByCustomer(@PathVariable String email,
+                                              @RequestParam(defaultValue = "false") boolean includeArchived) {
+        long startTime = System.currentTimeMillis();
+        AtomicLong count = new AtomicLong();
+
+        return Mono.fromCallable(() -> orderService.getOrdersByCustomer(email, includeArchived))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(Flux::fromIterable)
+                .doOnNext(order -> count.incrementAndGet())
+                .doOnComplete(() -> accessLogger.info("GET /api/orders/customer/{} (stream) - 200 - {}ms - {} orders streamed",
+                                                      email, System.currentTimeMillis() - startTime, count.get()))
+                .doOnError(e -> {
+                    long duration = System.currentTimeMillis() - startTime;
+                    logger.error("Error streaming orders for customer {}: {}", email, e.getMessage());
+                    accessLogger.error("GET /api/orders/customer/{} (stream) - 500 - {}ms - Error: {}",
+                                       email, duration, e.getMessage());
+                });
+    }
+}
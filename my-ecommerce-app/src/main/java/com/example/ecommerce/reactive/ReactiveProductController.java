@@ -0,0 +1,107 @@
+package com.example.ecommerce.reactive;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.service.ProductService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Variante réactive des lectures du catalogue, en flux NDJSON (Accept: application/x-ndjson).
+ * Les listes viennent du catalogue en mémoire ; la recherche, qui interroge la base,
+ * passe par le scheduler boundedElastic. Le flux n'émet qu'à la demande du client (backpressure).
+ * Les flux ne sont pas mis en cache (no-store) : seule la représentation JSON porte un ETag.
+ */
+@RestController
+@RequestMapping(value = "/api/products", produces = MediaType.APPLICATION_NDJSON_VALUE)
+@CrossOrigin(origins = "*")
+public class ReactiveProductController {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveProductController.class);
+    private static final Logger accessLogger = LoggerFactory.getLogger("ACCESS_LOGGER");
+
+    @Autowired
+    private ProductService productService;
+
+    @GetMapping
+    public ResponseEntity<Flux<Product>> streamAllProducts() {
+        long startTime = System.currentTimeMillis();
+        AtomicLong count = new AtomicLong();
+
+        return noStore(Flux.defer(() -> Flux.fromIterable(productService.getAllProducts()))
+                .doOnNext(product -> count.incrementAndGet())
+                .doOnComplete(() -> accessLogger.info("GET /api/products (stream) - 200 - {}ms - {} products streamed",
+                                                      System.currentTimeMillis() - startTime, count.get()))
+                .doOnError(e -> logError("GET /api/products (stream)", startTime, e)));
+    }
+
+    @GetMapping("/{id}")
+    public ResponseEntity<Flux<Product>> getProductById(@PathVariable Long id) {
+        long startTime = System.currentTimeMillis();
+
+        return noStore(Mono.fromCallable(() -> productService.getProductById(id))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMap(Mono::justOrEmpty)
+                .doOnNext(product -> accessLogger.info("GET /api/products/{} (stream) - 200 - {}ms - Product found",
+                                                       id, System.currentTimeMillis() - startTime))
+                // Même contrat que sous MVC : 404, pas un 200 au corps vide (aucun élément n'a encore été écrit)
+                .switchIfEmpty(Mono.defer(() -> {
+                    accessLogger.warn("GET /api/products/{} (stream) - 404 - {}ms - Product not found",
+                                      id, System.currentTimeMillis() - startTime);
+                    return Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Product not found"));
+                }))
+                .doOnError(e -> !(e instanceof ResponseStatusException),
+                           e -> logError("GET /api/products/" + id + " (stream)", startTime, e))
+                // Flux d'un élément : sous MVC, seul un Flux est écrit en NDJSON
+                .flux());
+    }
+
+    @GetMapping("/category/{category}")
+    public ResponseEntity<Flux<Product>> streamProductsByCategory(@PathVariable String category) {
+        long startTime = System.currentTimeMillis();
+        AtomicLong count = new AtomicLong();
+
+        return noStore(Flux.defer(() -> Flux.fromIterable(productService.getProductsByCategory(category)))
+                .doOnNext(product -> count.incrementAndGet())
+                .doOnComplete(() -> accessLogger.info("GET /api/products/category/{} (stream) - 200 - {}ms - {} products streamed",
+                                                      category, System.currentTimeMillis() - startTime, count.get()))
+                .doOnError(e -> logError("GET /api/products/category/" + category + " (stream)", startTime, e)));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<Flux<Product>> streamSearch(@RequestParam String q) {
+        long startTime = System.currentTimeMillis();
+        AtomicLong count = new AtomicLong();
+
+        // Requête JPA bloquante : exécutée hors de la boucle d'événements
+        return noStore(Mono.fromCallable(() -> productService.searchProducts(q))
+                .subscribeOn(Schedulers.boundedElastic())
+                .flatMapMany(Flux::fromIterable)
+                .doOnNext(product -> count.incrementAndGet())
+                .doOnComplete(() -> accessLogger.info("GET /api/products/search?q={} (stream) - 200 - {}ms - {} results",
+                                                      q, System.currentTimeMillis() - startTime, count.get()))
+                .doOnError(e -> logError("GET /api/products/search?q=" + q + " (stream)", startTime, e)));
+    }
+
+    private static <T> ResponseEntity<T> noStore(T body) {
+        return ResponseEntity.ok().cacheControl(CacheControl.noStore()).varyBy(HttpHeaders.ACCEPT).body(body);
+    }
+
+    private void logError(String route, long startTime, Throwable e) {
+        long duration = System.currentTimeMillis() - startTime;
+        logger.error("Error streaming {}: {}", route, e.getMessage());
+        accessLogger.error("{} - 500 - {}ms - Error: {}", route, duration, e.getMessage());
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.ecommerce.reactive;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.ReactiveAdapterRegistry;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.reactive.config.BlockingExecutionConfigurer;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+
+/**
+ * Configuration du profil reactive : serveur Netty (boucle d'événements) à la place de Tomcat.
+ * Les contrôleurs bloquants existants restent disponibles mais sont exécutés
+ * sur un pool borné pour ne jamais bloquer la boucle d'événements.
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebConfig implements WebFluxConfigurer {
+
+    @Value("${app.reactive.blocking-threads:64}")
+    private int blockingThreads;
+
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        // Tomcat est aussi présent (starter web) : on impose Netty pour le profil reactive
+        return new NettyReactiveWebServerFactory();
+    }
+
+    @Bean
+    public ThreadPoolTaskExecutor blockingControllerExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setThreadNamePrefix("blocking-mvc-");
+        executor.setCorePoolSize(blockingThreads);
+        executor.setMaxPoolSize(blockingThreads);
+        executor.setQueueCapacity(10_000);
+        executor.initialize();
+        return executor;
+    }
+
+    @Override
+    public void configureBlockingExecution(BlockingExecutionConfigurer configurer) {
+        ReactiveAdapterRegistry registry = ReactiveAdapterRegistry.getSharedInstance();
+        configurer.setExecutor(blockingControllerExecutor());
+        configurer.setControllerMethodPredicate(method ->
+                registry.getAdapter(method.getReturnType().getParameterType()) == null);
+    }
+}
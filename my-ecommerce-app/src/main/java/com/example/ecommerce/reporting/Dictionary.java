@@ -0,0 +1,45 @@
+package com.example.ecommerce.reporting;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Encodage dictionnaire : chaque valeur distincte reçoit un entier dense, dans l'ordre d'apparition
+final class Dictionary {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private volatile String[] values = new String[16];
+    private volatile int size;
+
+    // Écrivain unique (verrou du snapshot)
+    int encode(String value) {
+        Integer id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        int newId = size;
+        String[] current = values;
+        if (newId == current.length) {
+            current = Arrays.copyOf(current, newId * 2);
+        }
+        current[newId] = value;
+        values = current;
+        ids.put(value, newId);
+        size = newId + 1;
+        return newId;
+    }
+
+    // -1 si la valeur n'a jamais été vue : aucun enregistrement ne peut correspondre
+    int lookup(String value) {
+        Integer id = ids.get(value);
+        return id == null ? -1 : id;
+    }
+
+    String decode(int id) {
+        return values[id];
+    }
+
+    int size() {
+        return size;
+    }
+}
@@ -0,0 +1,62 @@
+package com.example.ecommerce.reporting;
+
+import java.time.LocalDate;
+
+// Axes de regroupement disponibles ; la valeur d'une ligne est un entier dense dans [0, cardinalité)
+public enum Dimension {
+
+    CATEGORY, DAY, PAYMENT_METHOD, STATUS, CUSTOMER, PRODUCT;
+
+    public static Dimension of(String name) {
+        return valueOf(name.trim().toUpperCase().replace('-', '_'));
+    }
+
+    int[] column(OrderColumns.View view) {
+        return switch (this) {
+            case CATEGORY -> view.category;
+            case DAY -> view.epochDay;
+            case PAYMENT_METHOD -> view.paymentMethod;
+            case STATUS -> view.status;
+            case CUSTOMER -> view.customer;
+            case PRODUCT -> view.product;
+        };
+    }
+
+    int cardinality(OrderColumns columns) {
+        return switch (this) {
+            case CATEGORY -> columns.categories.size();
+            case DAY -> columns.maxDay() < columns.minDay() ? 0 : columns.maxDay() - columns.minDay() + 1;
+            case PAYMENT_METHOD -> columns.paymentMethods.size();
+            case STATUS -> columns.statuses.size();
+            case CUSTOMER -> columns.customers.size();
+            case PRODUCT -> columns.products.size();
+        };
+    }
+
+    // Décalage soustrait à la valeur de colonne (jours : premier jour connu)
+    int base(OrderColumns columns) {
+        return this == DAY ? columns.minDay() : 0;
+    }
+
+    String decode(OrderColumns columns, int base, int value) {
+        return switch (this) {
+            case CATEGORY -> columns.categories.decode(value);
+            case DAY -> LocalDate.ofEpochDay(base + value).toString();
+            case PAYMENT_METHOD -> columns.paymentMethods.decode(value);
+            case STATUS -> columns.statuses.decode(value);
+            case CUSTOMER -> columns.customers.decode(value);
+            case PRODUCT -> columns.products.decode(value);
+        };
+    }
+
+    public String fieldName() {
+        return switch (this) {
+            case CATEGORY -> "category";
+            case DAY -> "day";
+            case PAYMENT_METHOD -> "paymentMethod";
+            case STATUS -> "status";
+            case CUSTOMER -> "customerEmail";
+            case PRODUCT -> "productId";
+        };
+    }
+}
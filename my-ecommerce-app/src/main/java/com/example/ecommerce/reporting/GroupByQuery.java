@@ -0,0 +1,260 @@
+package com.example.ecommerce.reporting;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Filtre + regroupement (0 à 2 dimensions) sur les colonnes, exécuté par un parcours parallèle
+ * fork-join : chaque feuille agrège une tranche de lignes dans ses propres tableaux
+ * (nombre, montant en centimes, quantité par groupe), puis les résultats partiels sont additionnés.
+ */
+final class GroupByQuery {
+
+    static final int MAX_GROUPS = 1 << 22;
+    private static final int LEAF_ROWS = 1 << 16;
+    // Beaucoup de groupes (clients) : une feuille par thread environ, pour limiter les tableaux partiels
+    private static final int LOCAL_GROUPS = 1 << 14;
+    // Au-delà de ce volume de tableaux partiels, accumulation partagée atomique
+    private static final long MAX_PARTIAL_BYTES = 128L << 20;
+
+    enum Sort { REVENUE, ORDERS, QUANTITY, AVERAGE_BASKET, KEY }
+
+    private final OrderColumns columns;
+    private final OrderColumns.View view;
+    private final List<Dimension> dimensions;
+    private final int[] bases;
+    private final int[] cardinalities;
+    private final int groups;
+
+    // Filtres traduits en identifiants de dictionnaire (-1 : pas de filtre)
+    private final int fromDay;
+    private final int toDay;
+    private final int status;
+    private final int paymentMethod;
+    private final int category;
+    private final int customer;
+    private final boolean empty;
+    private AtomicLongArray[] shared;
+    private int leafRows = LEAF_ROWS;
+
+    GroupByQuery(OrderColumns columns, OrderFilter filter, List<Dimension> dimensions) {
+        if (dimensions.size() > 2) {
+            throw new IllegalArgumentException("At most 2 group-by dimensions are supported");
+        }
+        this.columns = columns;
+        // Vue lue avant les dictionnaires : toute valeur des lignes visibles y est déjà encodée
+        this.view = columns.view();
+        this.dimensions = dimensions;
+        this.bases = new int[dimensions.size()];
+        this.cardinalities = new int[dimensions.size()];
+
+        long groupCount = 1;
+        for (int i = 0; i < dimensions.size(); i++) {
+            bases[i] = dimensions.get(i).base(columns);
+            cardinalities[i] = dimensions.get(i).cardinality(columns);
+            groupCount *= cardinalities[i];
+        }
+        if (groupCount > MAX_GROUPS) {
+            throw new IllegalArgumentException("Too many groups (" + groupCount + "), add a filter or a narrower dimension");
+        }
+        this.groups = (int) groupCount;
+
+        this.fromDay = filter.from() == null ? Integer.MIN_VALUE : (int) filter.from().toEpochDay();
+        this.toDay = filter.to() == null ? Integer.MAX_VALUE : (int) filter.to().toEpochDay();
+        this.status = lookup(columns.statuses, filter.status());
+        this.paymentMethod = lookup(columns.paymentMethods, filter.paymentMethod());
+        this.category = lookup(columns.categories, filter.category());
+        this.customer = lookup(columns.customers, filter.customerEmail());
+        this.empty = status == -2 || paymentMethod == -2 || category == -2 || customer == -2 || groups == 0;
+    }
+
+    ReportResult execute(ForkJoinPool pool, Sort sort, int limit) {
+        long startTime = System.nanoTime();
+        if (groups > LOCAL_GROUPS) {
+            int leaves = pool.getParallelism() * 2;
+            leafRows = Math.max(LEAF_ROWS, view.rows / leaves + 1);
+            if ((long) groups * 3 * Long.BYTES * leaves > MAX_PARTIAL_BYTES) {
+                shared = new AtomicLongArray[] {new AtomicLongArray(groups), new AtomicLongArray(groups), new AtomicLongArray(groups)};
+            }
+        }
+        long[][] totals = empty ? new long[3][Math.max(groups, 1)] : pool.invoke(new ScanTask(0, view.rows));
+        if (shared != null) {
+            totals = new long[3][groups];
+            for (int metric = 0; metric < 3; metric++) {
+                for (int key = 0; key < groups; key++) {
+                    totals[metric][key] = shared[metric].get(key);
+                }
+            }
+        }
+
+        long matched = 0;
+        long revenueCents = 0;
+        int nonEmpty = 0;
+        for (int key = 0; key < groups; key++) {
+            matched += totals[0][key];
+            revenueCents += totals[1][key];
+            if (totals[0][key] > 0) {
+                nonEmpty++;
+            }
+        }
+
+        List<ReportRow> rows = topRows(totals, sort, limit);
+        double elapsedMs = (System.nanoTime() - startTime) / 1_000_000.0;
+        return new ReportResult(view.rows, matched, cents(revenueCents), nonEmpty, elapsedMs, rows);
+    }
+
+    // Tas borné à limit groupes : pas de tri complet quand il y a beaucoup de groupes (clients)
+    private List<ReportRow> topRows(long[][] totals, Sort sort, int limit) {
+        Comparator<Integer> order = comparator(totals, sort);
+        int bound = limit > 0 ? limit : Integer.MAX_VALUE;
+        PriorityQueue<Integer> heap = new PriorityQueue<>(order.reversed());
+        for (int key = 0; key < groups; key++) {
+            if (totals[0][key] == 0) {
+                continue;
+            }
+            heap.add(key);
+            if (heap.size() > bound) {
+                heap.poll();
+            }
+        }
+
+        List<Integer> keys = new ArrayList<>(heap);
+        keys.sort(order);
+        List<ReportRow> rows = new ArrayList<>(keys.size());
+        for (int key : keys) {
+            long orders = totals[0][key];
+            rows.add(new ReportRow(groupValues(key), orders, cents(totals[1][key]), totals[2][key],
+                                   BigDecimal.valueOf(totals[1][key]).divide(BigDecimal.valueOf(orders * 100), 2, RoundingMode.HALF_UP)));
+        }
+        return rows;
+    }
+
+    private Comparator<Integer> comparator(long[][] totals, Sort sort) {
+        return switch (sort) {
+            case REVENUE -> Comparator.<Integer>comparingLong(key -> -totals[1][key]);
+            case ORDERS -> Comparator.<Integer>comparingLong(key -> -totals[0][key]);
+            case QUANTITY -> Comparator.<Integer>comparingLong(key -> -totals[2][key]);
+            case AVERAGE_BASKET -> Comparator.<Integer>comparingDouble(key -> -(double) totals[1][key] / totals[0][key]);
+            case KEY -> Comparator.<Integer>comparingInt(key -> key);
+        };
+    }
+
+    private Map<String, String> groupValues(int key) {
+        int[] values = new int[dimensions.size()];
+        for (int i = dimensions.size() - 1; i >= 0; i--) {
+            values[i] = key % cardinalities[i];
+            key /= cardinalities[i];
+        }
+        Map<String, String> group = new LinkedHashMap<>();
+        for (int i = 0; i < dimensions.size(); i++) {
+            group.put(dimensions.get(i).fieldName(), dimensions.get(i).decode(columns, bases[i], values[i]));
+        }
+        return group;
+    }
+
+    private static int lookup(Dictionary dictionary, String value) {
+        if (value == null || value.isBlank()) {
+            return -1;
+        }
+        int id = dictionary.lookup(value);
+        return id < 0 ? -2 : id;
+    }
+
+    private static BigDecimal cents(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    private final class ScanTask extends RecursiveTask<long[][]> {
+
+        private final int from;
+        private final int to;
+
+        ScanTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected long[][] compute() {
+            if (to - from <= leafRows) {
+                return scan();
+            }
+            int middle = (from + to) >>> 1;
+            ScanTask left = new ScanTask(from, middle);
+            left.fork();
+            long[][] right = new ScanTask(middle, to).compute();
+            long[][] result = left.join();
+            if (result == null) {
+                return null;
+            }
+            for (int metric = 0; metric < 3; metric++) {
+                long[] target = result[metric];
+                long[] source = right[metric];
+                for (int key = 0; key < groups; key++) {
+                    target[key] += source[key];
+                }
+            }
+            return result;
+        }
+
+        private long[][] scan() {
+            long[] count = shared == null ? new long[groups] : null;
+            long[] cents = shared == null ? new long[groups] : null;
+            long[] quantity = shared == null ? new long[groups] : null;
+
+            int[] days = view.epochDay;
+            int[] statuses = view.status;
+            int[] payments = view.paymentMethod;
+            int[] categories = view.category;
+            int[] customers = view.customer;
+            int[] first = dimensions.isEmpty() ? null : dimensions.get(0).column(view);
+            int[] second = dimensions.size() < 2 ? null : dimensions.get(1).column(view);
+
+            for (int row = from; row < to; row++) {
+                int day = days[row];
+                if (day < fromDay || day > toDay
+                        || (status >= 0 && statuses[row] != status)
+                        || (paymentMethod >= 0 && payments[row] != paymentMethod)
+                        || (category >= 0 && categories[row] != category)
+                        || (customer >= 0 && customers[row] != customer)) {
+                    continue;
+                }
+
+                int key = 0;
+                if (first != null) {
+                    key = first[row] - bases[0];
+                    // Ligne modifiée après la prise de vue (nouvelle valeur hors cardinalité) : ignorée
+                    if (key < 0 || key >= cardinalities[0]) {
+                        continue;
+                    }
+                    if (second != null) {
+                        int value = second[row] - bases[1];
+                        if (value < 0 || value >= cardinalities[1]) {
+                            continue;
+                        }
+                        key = key * cardinalities[1] + value;
+                    }
+                }
+                if (shared == null) {
+                    count[key]++;
+                    cents[key] += view.amountCents[row];
+                    quantity[key] += view.quantity[row];
+                } else {
+                    shared[0].incrementAndGet(key);
+                    shared[1].addAndGet(key, view.amountCents[row]);
+                    shared[2].addAndGet(key, view.quantity[row]);
+                }
+            }
+            return shared == null ? new long[][] {count, cents, quantity} : null;
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.ecommerce.reporting;
+
+import java.util.Arrays;
+
+/**
+ * Commandes stockées en colonnes de types primitifs, une ligne par commande.
+ * Écrivain unique (méthodes synchronisées) ; les lecteurs prennent {@link #view()} et ne lisent
+ * que les lignes < rows : une ligne est entièrement écrite avant l'incrément (volatile) de rows.
+ * Une mise à jour de commande existante (statut, paiement) est faite en place.
+ */
+final class OrderColumns {
+
+    // Jeu de colonnes à une capacité donnée ; remplacé (copie) quand il faut grandir
+    static final class View {
+        final long[] orderId;
+        final long[] amountCents;
+        final int[] quantity;
+        final int[] product;
+        final int[] category;
+        final int[] epochDay;
+        final int[] status;
+        final int[] paymentMethod;
+        final int[] customer;
+        final int rows;
+
+        private View(int capacity, View previous, int rows) {
+            orderId = previous == null ? new long[capacity] : Arrays.copyOf(previous.orderId, capacity);
+            amountCents = previous == null ? new long[capacity] : Arrays.copyOf(previous.amountCents, capacity);
+            quantity = previous == null ? new int[capacity] : Arrays.copyOf(previous.quantity, capacity);
+            product = previous == null ? new int[capacity] : Arrays.copyOf(previous.product, capacity);
+            category = previous == null ? new int[capacity] : Arrays.copyOf(previous.category, capacity);
+            epochDay = previous == null ? new int[capacity] : Arrays.copyOf(previous.epochDay, capacity);
+            status = previous == null ? new int[capacity] : Arrays.copyOf(previous.status, capacity);
+            paymentMethod = previous == null ? new int[capacity] : Arrays.copyOf(previous.paymentMethod, capacity);
+            customer = previous == null ? new int[capacity] : Arrays.copyOf(previous.customer, capacity);
+            this.rows = rows;
+        }
+
+        private View(View columns, int rows) {
+            orderId = columns.orderId;
+            amountCents = columns.amountCents;
+            quantity = columns.quantity;
+            product = columns.product;
+            category = columns.category;
+            epochDay = columns.epochDay;
+            status = columns.status;
+            paymentMethod = columns.paymentMethod;
+            customer = columns.customer;
+            this.rows = rows;
+        }
+
+        int capacity() {
+            return orderId.length;
+        }
+    }
+
+    final Dictionary products = new Dictionary();
+    final Dictionary categories = new Dictionary();
+    final Dictionary statuses = new Dictionary();
+    final Dictionary paymentMethods = new Dictionary();
+    final Dictionary customers = new Dictionary();
+
+    private final LongIntMap rowsByOrderId = new LongIntMap(1024);
+    private volatile View view = new View(1024, null, 0);
+    private volatile int minDay = Integer.MAX_VALUE;
+    private volatile int maxDay = Integer.MIN_VALUE;
+
+    View view() {
+        return view;
+    }
+
+    int minDay() {
+        return minDay;
+    }
+
+    int maxDay() {
+        return maxDay;
+    }
+
+    synchronized void upsert(long orderId, long amountCents, int quantity, long productId, String category,
+                             int epochDay, String status, String paymentMethod, String customerEmail) {
+        View current = view;
+        int row = rowsByOrderId.get(orderId);
+        boolean append = row < 0;
+        if (append) {
+            row = current.rows;
+            if (row == current.capacity()) {
+                current = new View(current.capacity() + (current.capacity() >> 1), current, current.rows);
+            }
+        }
+
+        current.orderId[row] = orderId;
+        current.amountCents[row] = amountCents;
+        current.quantity[row] = quantity;
+        current.product[row] = products.encode(String.valueOf(productId));
+        current.category[row] = categories.encode(category);
+        current.epochDay[row] = epochDay;
+        current.status[row] = statuses.encode(status);
+        current.paymentMethod[row] = paymentMethods.encode(paymentMethod == null ? "NONE" : paymentMethod);
+        current.customer[row] = customers.encode(customerEmail);
+
+        minDay = Math.min(minDay, epochDay);
+        maxDay = Math.max(maxDay, epochDay);
+        if (append) {
+            rowsByOrderId.put(orderId, row);
+            view = new View(current, row + 1);
+        }
+    }
+}
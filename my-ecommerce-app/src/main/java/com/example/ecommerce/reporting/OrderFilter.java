@@ -0,0 +1,14 @@
+package com.example.ecommerce.reporting;
+
+import java.time.LocalDate;
+
+// Critères de sélection des commandes ; null = pas de filtre sur ce champ. Bornes de dates incluses.
+public record OrderFilter(LocalDate from, LocalDate to, String status, String paymentMethod,
+                          String category, String customerEmail) {
+
+    public static final OrderFilter ALL = new OrderFilter(null, null, null, null, null, null);
+
+    public OrderFilter withStatus(String newStatus) {
+        return new OrderFilter(from, to, newStatus, paymentMethod, category, customerEmail);
+    }
+}
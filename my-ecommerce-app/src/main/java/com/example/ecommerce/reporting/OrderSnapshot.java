@@ -0,0 +1,175 @@
+package com.example.ecommerce.reporting;
+
+import com.example.ecommerce.archive.OrderArchive;
+import com.example.ecommerce.model.OutboxEvent;
+import com.example.ecommerce.outbox.OutboxCursor;
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.service.OutboxService;
+import com.example.ecommerce.service.ProductCatalog;
+import com.example.ecommerce.sharding.OrderShards;
+import com.example.ecommerce.sharding.ShardContext;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Copie en colonnes de toutes les commandes, pour les rapports ad hoc sans passer par JPA.
+ *
+ * Chargement initial par un parcours JDBC des tables orders de tous les shards et des segments de l'archive
+ * (lus après les shards : une commande archivée entre-temps est retrouvée dans son segment), puis mise à jour incrémentale
+ * à partir de l'outbox : chaque événement porte l'état complet de la commande, appliqué en upsert.
+ * Le dernier offset est lu avant le parcours : les offsets sont attribués après commit, donc tout événement
+ * jusqu'à cet offset est déjà visible par le parcours, et tout ce qui suit est rejoué depuis l'outbox.
+ * Rejouer un événement déjà vu est sans effet.
+ */
+@Component
+public class OrderSnapshot {
+
+    private static final Logger logger = LoggerFactory.getLogger(OrderSnapshot.class);
+
+    private static final String SCAN_COLUMNS =
+            "o.id, o.total_amount, o.quantity, o.product_id, p.category, o.created_at, o.status, o.payment_method, o.customer_email";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OutboxService outboxService;
+
+    @Autowired
+    private ProductCatalog productCatalog;
+
+    @Autowired
+    private OrderShards orderShards;
+
+    @Autowired
+    private OrderArchive orderArchive;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${app.reporting.refresh-batch:1000}")
+    private int refreshBatch;
+
+    private final ForkJoinPool pool;
+    private final OrderColumns columns = new OrderColumns();
+
+    private volatile OutboxCursor cursor;
+    private volatile LocalDateTime refreshedAt;
+
+    public OrderSnapshot(@Value("${app.reporting.parallelism:0}") int parallelism) {
+        this.pool = parallelism > 0 ? new ForkJoinPool(parallelism) : ForkJoinPool.commonPool();
+    }
+
+    public ReportResult query(OrderFilter filter, List<Dimension> groupBy, String sort, int limit) {
+        GroupByQuery.Sort order = GroupByQuery.Sort.valueOf(sort.trim().toUpperCase().replace('-', '_'));
+        return new GroupByQuery(columns, filter, groupBy).execute(pool, order, limit);
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        OutboxCursor current = cursor;
+        status.put("loaded", current != null);
+        status.put("orders", columns.view().rows);
+        status.put("outboxOffset", current != null ? current.offset() : -1);
+        status.put("refreshedAt", refreshedAt);
+        status.put("customers", columns.customers.size());
+        status.put("products", columns.products.size());
+        status.put("parallelism", pool.getParallelism());
+        return status;
+    }
+
+    // Chargement au premier passage (hors du démarrage), puis rattrapage de l'outbox
+    @Scheduled(fixedDelayString = "${app.reporting.refresh-interval:1000}")
+    public void refresh() {
+        if (cursor == null) {
+            try {
+                load();
+            } catch (Exception e) {
+                logger.warn("Order snapshot load failed: {}", e.getMessage());
+                return;
+            }
+        }
+        try {
+            long applied = cursor.drain(refreshBatch, this::apply);
+            if (applied > 0) {
+                logger.debug("Order snapshot refreshed: {} events applied, offset {}", applied, cursor.offset());
+            }
+            refreshedAt = LocalDateTime.now();
+
+        } catch (Exception e) {
+            logger.warn("Order snapshot refresh failed at offset {}: {}", cursor.offset(), e.getMessage());
+        }
+    }
+
+    private void load() {
+        long startTime = System.currentTimeMillis();
+        long startOffset = outboxService.latestOffset();
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(scanSql());
+            statement.setFetchSize(10_000);
+            return statement;
+        }, resultSet -> {
+            Timestamp createdAt = resultSet.getTimestamp("created_at");
+            columns.upsert(resultSet.getLong("id"), toCents(resultSet.getBigDecimal("total_amount")),
+                           resultSet.getInt("quantity"), resultSet.getLong("product_id"), resultSet.getString("category"),
+                           (int) createdAt.toLocalDateTime().toLocalDate().toEpochDay(), resultSet.getString("status"),
+                           resultSet.getString("payment_method"), resultSet.getString("customer_email"));
+        });
+
+        orderArchive.forEach(null, null, archived ->
+                columns.upsert(archived.id(), toCents(archived.totalAmount()), archived.quantity(), archived.productId(),
+                               archived.category(), (int) archived.createdAt().toLocalDate().toEpochDay(),
+                               archived.status(), archived.paymentMethod(), archived.customerEmail()));
+
+        cursor = new OutboxCursor(outboxService, startOffset);
+        logger.info("Order snapshot loaded in {}ms: {} orders, replaying outbox from offset {}",
+                  System.currentTimeMillis() - startTime, columns.view().rows, startOffset);
+    }
+
+    // Une seule requête sur l'union des shards (et de PUBLIC.orders pendant un rééquilibrage)
+    private String scanSql() {
+        StringJoiner shards = new StringJoiner(" UNION ALL ");
+        for (int shard : orderShards.layout().allShards()) {
+            shards.add("SELECT * FROM " + ShardContext.schemaOf(shard) + ".orders");
+        }
+        return "SELECT " + SCAN_COLUMNS + " FROM (" + shards + ") o JOIN products p ON p.id = o.product_id ORDER BY o.id";
+    }
+
+    // Un lot en échec est rejoué en entier au passage suivant : les upserts sont idempotents
+    private void apply(List<OutboxEvent> events) throws Exception {
+        for (OutboxEvent event : events) {
+            JsonNode payload = objectMapper.readTree(event.getPayload());
+            long productId = payload.path("product_id").asLong();
+            String category = productCatalog.byId(productId).map(Product::getCategory).orElse("UNKNOWN");
+            LocalDateTime createdAt = LocalDateTime.parse(payload.path("order_created_at").asText());
+            columns.upsert(event.getOrderId(), toCents(payload.path("total_amount").decimalValue()),
+                           payload.path("quantity").asInt(), productId, category,
+                           (int) createdAt.toLocalDate().toEpochDay(), payload.path("status").asText(),
+                           payload.path("payment_method").isNull() ? null : payload.path("payment_method").asText(),
+                           payload.path("customer_email").asText());
+        }
+    }
+
+    private static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+}
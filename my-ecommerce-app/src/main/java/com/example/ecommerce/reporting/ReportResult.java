@@ -0,0 +1,8 @@
+package com.example.ecommerce.reporting;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+public record ReportResult(long scannedOrders, long matchedOrders, BigDecimal revenue, long groups,
+                           double elapsedMs, List<ReportRow> rows) {
+}
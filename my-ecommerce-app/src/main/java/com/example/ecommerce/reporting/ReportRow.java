@@ -0,0 +1,8 @@
+package com.example.ecommerce.reporting;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+public record ReportRow(Map<String, String> group, long orders, BigDecimal revenue, long quantity,
+                        BigDecimal averageBasket) {
+}
@@ -0,0 +1,23 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.ArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface ArchiveSegmentRepository extends JpaRepository<ArchiveSegment, String> {
+    
+    List<ArchiveSegment> findAllByOrderByFirstOrderIdAsc();
+    
+    // Segments dont la période chevauche [from, to]
+    @Query("SELECT s FROM ArchiveSegment s WHERE s.lastDay >= ?1 AND s.firstDay <= ?2 ORDER BY s.firstOrderId")
+    List<ArchiveSegment> findOverlapping(LocalDate from, LocalDate to);
+    
+    // Segments dont la plage d'identifiants contient id (les plages de shards différents peuvent se chevaucher)
+    @Query("SELECT s FROM ArchiveSegment s WHERE s.firstOrderId <= ?1 AND s.lastOrderId >= ?1 ORDER BY s.firstOrderId")
+    List<ArchiveSegment> findContaining(Long id);
+}
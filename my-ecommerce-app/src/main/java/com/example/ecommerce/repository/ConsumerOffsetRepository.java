@@ -0,0 +1,17 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.ConsumerOffset;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ConsumerOffsetRepository extends JpaRepository<ConsumerOffset, String> {
+    
+    // Offset du consommateur le plus en retard : rien au-delà ne peut être purgé
+    @Query("SELECT MIN(c.lastOffset) FROM ConsumerOffset c")
+    Long findMinimumOffset();
+    
+    @Query("SELECT MAX(c.lastOffset) FROM ConsumerOffset c")
+    Long findMaximumOffset();
+}
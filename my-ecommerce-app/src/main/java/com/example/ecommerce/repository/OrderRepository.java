@@ -1,11 +1,17 @@
 package com.example.ecommerce.repository;
 
 import com.example.ecommerce.model.Order;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -20,4 +26,16 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     
     @Query("SELECT COUNT(o) FROM Order o WHERE o.status = 'CONFIRMED'")
     Long countConfirmedOrders();
+    
+    @Query("SELECT COALESCE(SUM(o.totalAmount), 0) FROM Order o WHERE o.status = 'CONFIRMED'")
+    BigDecimal sumConfirmedRevenue();
+    
+    // Commandes terminées à archiver, verrouillées jusqu'à leur suppression du shard
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT o FROM Order o WHERE o.status IN ?1 AND o.createdAt < ?2 ORDER BY o.id")
+    List<Order> findArchivable(Collection<String> statuses, LocalDateTime before, Pageable pageable);
+    
+    @Modifying
+    @Query("DELETE FROM Order o WHERE o.id IN ?1")
+    int deleteByIdIn(Collection<Long> ids);
 }
@@ -0,0 +1,19 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.OrderRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface OrderRollupRepository extends JpaRepository<OrderRollup, Long> {
+    
+    Optional<OrderRollup> findByDayAndProductIdAndStatus(LocalDate day, Long productId, String status);
+    
+    @Query("SELECT r FROM OrderRollup r WHERE r.day BETWEEN ?1 AND ?2 ORDER BY r.day, r.productId, r.status")
+    List<OrderRollup> findByDayBetween(LocalDate from, LocalDate to);
+}
@@ -0,0 +1,32 @@
+package com.example.ecommerce.repository;
+
+import com.example.ecommerce.model.OutboxEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    List<OutboxEvent> findByLogOffsetGreaterThanOrderByLogOffsetAsc(Long offset, Pageable pageable);
+    
+    // Événements validés pas encore séquencés, dans l'ordre d'insertion
+    List<OutboxEvent> findByLogOffsetIsNullOrderByIdAsc(Pageable pageable);
+    
+    @Query("SELECT MAX(e.logOffset) FROM OutboxEvent e")
+    Long findLatestOffset();
+    
+    // Base créée avant le séquencement : les consommateurs ont acquitté des identifiants
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.logOffset = e.id WHERE e.logOffset IS NULL")
+    int sequenceById();
+    
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.logOffset <= ?1 AND e.createdAt < ?2")
+    int deleteRelayedBefore(Long offset, LocalDateTime before);
+}
@@ -1,10 +1,12 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.analytics.StreamAnalytics;
 import com.example.ecommerce.model.Product;
 import com.github.javafaker.Faker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
@@ -13,6 +15,8 @@ import java.util.List;
 import java.util.Random;
 import java.util.concurrent.CompletableFuture;
 
+// Faker charge ses dictionnaires YAML à la construction : créé seulement quand la démo est utilisée
+@Lazy
 @Service
 public class DataGeneratorService {
     
@@ -26,6 +30,9 @@ public class DataGeneratorService {
     @Autowired
     private OrderService orderService;
     
+    @Autowired
+    private StreamAnalytics streamAnalytics;
+    
     private final Faker faker = new Faker();
     private final Random random = new Random();
     
@@ -107,8 +114,10 @@ public class DataGeneratorService {
                     break;
             }
             
+            String userIp = faker.internet().ipV4Address();
+            streamAnalytics.recordVisitor(userIp);
             businessLogger.info("{{\"event_type\":\"user_action_simulated\",\"action\":\"{}\",\"user_ip\":\"{}\",\"timestamp\":\"{}\"}}",
-                              action, faker.internet().ipV4Address(), java.time.LocalDateTime.now());
+                              action, userIp, java.time.LocalDateTime.now());
                               
         } catch (Exception e) {
             errorLogger.error("{{\"event_type\":\"simulation_error\",\"action\":\"{}\",\"error\":\"{}\",\"timestamp\":\"{}\"}}",
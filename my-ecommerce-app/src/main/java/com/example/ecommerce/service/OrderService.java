@@ -1,15 +1,26 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.archive.OrderArchive;
+import com.example.ecommerce.fault.FaultInjector;
+import com.example.ecommerce.fault.FaultSeam;
+import com.example.ecommerce.fault.InjectedFaultException;
 import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.OrderEventType;
 import com.example.ecommerce.model.Product;
 import com.example.ecommerce.repository.OrderRepository;
+import com.example.ecommerce.sharding.OrderShards;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
 
@@ -26,9 +37,28 @@ public class OrderService {
     @Autowired
     private ProductService productService;
     
+    @Autowired
+    private OutboxService outboxService;
+    
+    @Autowired
+    private OrderShards orderShards;
+    
+    @Autowired
+    private OrderArchive orderArchive;
+    
+    @Autowired
+    private FaultInjector faultInjector;
+    
     private final Random random = new Random();
     
+    // Les commandes sont réparties par client : chaque écriture a lieu dans une transaction
+    // ouverte sur le shard de la commande (produit et outbox, partagés, y participent)
     public Order createOrder(String customerEmail, String customerName, Long productId, Integer quantity) {
+        return orderShards.inCustomerShard(customerEmail,
+                () -> createOrderInShard(customerEmail, customerName, productId, quantity));
+    }
+    
+    private Order createOrderInShard(String customerEmail, String customerName, Long productId, Integer quantity) {
         logger.info("Creating order for customer: {} - Product: {} - Quantity: {}", customerEmail, productId, quantity);
         
         try {
@@ -57,6 +87,8 @@ public class OrderService {
             // Mise à jour du stock
             productService.updateStock(productId, product.getStock() - quantity);
             
+            outboxService.append(OrderEventType.ORDER_CREATED, savedOrder, "customer_name", customerName);
+            
             businessLogger.info("{{\"event_type\":\"order_created\",\"order_id\":{},\"customer_email\":\"{}\",\"product_id\":{},\"quantity\":{},\"total_amount\":{},\"timestamp\":\"{}\"}}",
                               savedOrder.getId(), customerEmail, productId, quantity, savedOrder.getTotalAmount(), java.time.LocalDateTime.now());
             
@@ -71,11 +103,28 @@ public class OrderService {
         }
     }
     
+    // Commande chaude lue dans son shard ; includeArchived cherche ensuite dans l'archive
+    public Optional<Order> getOrderById(Long orderId, boolean includeArchived) {
+        logger.info("Fetching order: {}", orderId);
+        Optional<Order> order = orderShards.inOrderShard(orderId, shard -> orderRepository.existsById(orderId),
+                                                         () -> orderRepository.findById(orderId));
+        if (order.isEmpty() && includeArchived) {
+            order = orderArchive.findById(orderId);
+        }
+        return order;
+    }
+    
     public Order updateOrderStatus(Long orderId, String newStatus) {
+        return orderShards.inOrderShard(orderId, shard -> orderRepository.existsById(orderId),
+                                        () -> updateOrderStatusInShard(orderId, newStatus));
+    }
+    
+    private Order updateOrderStatusInShard(Long orderId, String newStatus) {
         logger.info("Updating order {} status to: {}", orderId, newStatus);
         
         Optional<Order> orderOpt = orderRepository.findById(orderId);
         if (!orderOpt.isPresent()) {
+            rejectIfArchived(orderId);
             logger.error("Order not found: {}", orderId);
             errorLogger.error("{{\"event_type\":\"order_not_found\",\"order_id\":{},\"timestamp\":\"{}\"}}",
                             orderId, java.time.LocalDateTime.now());
@@ -86,6 +135,8 @@ public class OrderService {
         String oldStatus = order.getStatus();
         order.setStatus(newStatus);
         Order updatedOrder = orderRepository.save(order);
+        outboxService.append(OrderEventType.ORDER_STATUS_UPDATED, updatedOrder,
+                           "old_status", oldStatus, "new_status", newStatus);
         
         businessLogger.info("{{\"event_type\":\"order_status_updated\",\"order_id\":{},\"old_status\":\"{}\",\"new_status\":\"{}\",\"customer_email\":\"{}\",\"timestamp\":\"{}\"}}",
                           orderId, oldStatus, newStatus, order.getCustomerEmail(), java.time.LocalDateTime.now());
@@ -94,27 +145,45 @@ public class OrderService {
     }
     
     public boolean processPayment(Long orderId, String paymentMethod) {
+        return orderShards.inOrderShard(orderId, shard -> orderRepository.existsById(orderId),
+                                        () -> processPaymentInShard(orderId, paymentMethod));
+    }
+    
+    private boolean processPaymentInShard(Long orderId, String paymentMethod) {
         logger.info("Processing payment for order {} with method: {}", orderId, paymentMethod);
         
         Optional<Order> orderOpt = orderRepository.findById(orderId);
         if (!orderOpt.isPresent()) {
+            rejectIfArchived(orderId);
             logger.error("Order not found for payment: {}", orderId);
             return false;
         }
         
         Order order = orderOpt.get();
         
+        // Appel à la passerelle de paiement : point d'injection de latence et de pannes (fault.FaultInjector)
+        try {
+            faultInjector.inject(FaultSeam.PAYMENT, "OrderService.processPayment");
+        } catch (InjectedFaultException e) {
+            errorLogger.error("{{\"event_type\":\"payment_gateway_error\",\"order_id\":{},\"payment_method\":\"{}\",\"amount\":{},\"error_message\":\"{}\",\"timestamp\":\"{}\"}}",
+                            orderId, paymentMethod, order.getTotalAmount(), e.getMessage(), java.time.LocalDateTime.now());
+            throw e;
+        }
+        
         // Simulation d'échec de paiement (10% de chance)
         if (random.nextInt(100) < 10) {
             logger.warn("Payment failed for order: {}", orderId);
             errorLogger.warn("{{\"event_type\":\"payment_failed\",\"order_id\":{},\"payment_method\":\"{}\",\"amount\":{},\"reason\":\"payment_declined\",\"timestamp\":\"{}\"}}",
                            orderId, paymentMethod, order.getTotalAmount(), java.time.LocalDateTime.now());
+            outboxService.append(OrderEventType.PAYMENT_FAILED, order,
+                               "attempted_payment_method", paymentMethod, "reason", "payment_declined");
             return false;
         }
         
         order.setPaymentMethod(paymentMethod);
         order.setStatus("CONFIRMED");
         orderRepository.save(order);
+        outboxService.append(OrderEventType.PAYMENT_PROCESSED, order);
         
         businessLogger.info("{{\"event_type\":\"payment_processed\",\"order_id\":{},\"payment_method\":\"{}\",\"amount\":{},\"customer_email\":\"{}\",\"timestamp\":\"{}\"}}",
                           orderId, paymentMethod, order.getTotalAmount(), order.getCustomerEmail(), java.time.LocalDateTime.now());
@@ -123,32 +192,96 @@ public class OrderService {
         return true;
     }
     
-    public List<Order> getOrdersByCustomer(String customerEmail) {
+    // Une commande archivée est terminée et immuable : la modifier est un conflit, pas une commande introuvable
+    private void rejectIfArchived(Long orderId) {
+        if (orderArchive.contains(orderId)) {
+            throw new IllegalStateException("Order " + orderId + " is archived and can no longer be modified");
+        }
+    }
+    
+    // Les lectures portent sur les shards (commandes chaudes) ; includeArchived y ajoute les commandes
+    // terminées déplacées dans l'archive, lues depuis les segments compressés
+    public List<Order> getOrdersByCustomer(String customerEmail, boolean includeArchived) {
         logger.info("Fetching orders for customer: {}", customerEmail);
-        List<Order> orders = orderRepository.findByCustomerEmail(customerEmail);
-        businessLogger.info("{{\"event_type\":\"customer_orders_fetched\",\"customer_email\":\"{}\",\"orders_count\":{},\"timestamp\":\"{}\"}}",
-                          customerEmail, orders.size(), java.time.LocalDateTime.now());
+        List<List<Order>> partials = orderShards.scatter(orderShards.layout().shardsOf(customerEmail),
+                                                         shard -> orderRepository.findByCustomerEmail(customerEmail));
+        if (includeArchived) {
+            partials.add(orderArchive.findByCustomer(customerEmail));
+        }
+        List<Order> orders = merge(partials);
+        businessLogger.info("{{\"event_type\":\"customer_orders_fetched\",\"customer_email\":\"{}\",\"orders_count\":{},\"include_archived\":{},\"timestamp\":\"{}\"}}",
+                          customerEmail, orders.size(), includeArchived, java.time.LocalDateTime.now());
         return orders;
     }
     
-    public List<Order> getAllOrders() {
+    public List<Order> getAllOrders(boolean includeArchived) {
         logger.info("Fetching all orders");
-        List<Order> orders = orderRepository.findAll();
-        businessLogger.info("{{\"event_type\":\"all_orders_fetched\",\"total_orders\":{},\"timestamp\":\"{}\"}}",
-                          orders.size(), java.time.LocalDateTime.now());
+        List<List<Order>> partials = orderShards.scatterAll(shard -> orderRepository.findAll());
+        if (includeArchived) {
+            partials.add(orderArchive.find(null, null, archived -> true));
+        }
+        List<Order> orders = merge(partials);
+        businessLogger.info("{{\"event_type\":\"all_orders_fetched\",\"total_orders\":{},\"include_archived\":{},\"timestamp\":\"{}\"}}",
+                          orders.size(), includeArchived, java.time.LocalDateTime.now());
+        return orders;
+    }
+    
+    public List<Order> getOrdersByStatus(String status, boolean includeArchived) {
+        logger.info("Fetching orders with status: {}", status);
+        List<List<Order>> partials = orderShards.scatterAll(shard -> orderRepository.findByStatus(status));
+        if (includeArchived) {
+            partials.add(orderArchive.findByStatus(status));
+        }
+        List<Order> orders = merge(partials);
+        businessLogger.info("{{\"event_type\":\"status_orders_fetched\",\"status\":\"{}\",\"orders_count\":{},\"include_archived\":{},\"timestamp\":\"{}\"}}",
+                          status, orders.size(), includeArchived, java.time.LocalDateTime.now());
         return orders;
     }
     
+    // Côté archive, seuls les segments dont la période chevauche [start, end] sont lus
+    public List<Order> getOrdersBetween(LocalDateTime start, LocalDateTime end, boolean includeArchived) {
+        logger.info("Fetching orders created between {} and {}", start, end);
+        List<List<Order>> partials = orderShards.scatterAll(shard -> orderRepository.findByCreatedAtBetween(start, end));
+        if (includeArchived) {
+            partials.add(orderArchive.find(start.toLocalDate(), end.toLocalDate(), archived ->
+                    !archived.createdAt().isBefore(start) && !archived.createdAt().isAfter(end)));
+        }
+        List<Order> orders = merge(partials);
+        businessLogger.info("{{\"event_type\":\"period_orders_fetched\",\"from\":\"{}\",\"to\":\"{}\",\"orders_count\":{},\"include_archived\":{},\"timestamp\":\"{}\"}}",
+                          start, end, orders.size(), includeArchived, java.time.LocalDateTime.now());
+        return orders;
+    }
+    
+    // Somme et comptage calculés par chaque shard, seuls les agrégats remontent. Le chiffre d'affaires porte
+    // sur les commandes CONFIRMED, qui ne sont jamais archivées : l'archive n'a rien à y ajouter
     public BigDecimal calculateTotalRevenue() {
         logger.info("Calculating total revenue");
-        List<Order> confirmedOrders = orderRepository.findByStatus("CONFIRMED");
-        BigDecimal totalRevenue = confirmedOrders.stream()
-                .map(Order::getTotalAmount)
-                .reduce(BigDecimal.ZERO, BigDecimal::add);
+        BigDecimal totalRevenue = BigDecimal.ZERO;
+        long confirmedOrders = 0;
+        for (Object[] partial : orderShards.scatterAll(shard -> new Object[] {
+                orderRepository.sumConfirmedRevenue(), orderRepository.countConfirmedOrders()})) {
+            totalRevenue = totalRevenue.add((BigDecimal) partial[0]);
+            confirmedOrders += (Long) partial[1];
+        }
         
         businessLogger.info("{{\"event_type\":\"revenue_calculated\",\"total_revenue\":{},\"confirmed_orders_count\":{},\"timestamp\":\"{}\"}}",
-                          totalRevenue, confirmedOrders.size(), java.time.LocalDateTime.now());
+                          totalRevenue, confirmedOrders, java.time.LocalDateTime.now());
         
         return totalRevenue;
     }
+    
+    // Fusion des résultats des shards, dédoublonnés par identifiant : pendant un rééquilibrage, une commande
+    // déplacée entre deux lectures peut apparaître dans deux shards. Tri par date de création puis par id :
+    // l'id ne suit pas l'ordre de création, chaque shard tirant son propre bloc de la séquence (optimiseur pooled)
+    private static List<Order> merge(List<List<Order>> partials) {
+        Map<Long, Order> byId = new LinkedHashMap<>();
+        for (List<Order> partial : partials) {
+            for (Order order : partial) {
+                byId.putIfAbsent(order.getId(), order);
+            }
+        }
+        List<Order> orders = new ArrayList<>(byId.values());
+        orders.sort(Comparator.comparing(Order::getCreatedAt).thenComparing(Order::getId));
+        return orders;
+    }
 }
@@ -0,0 +1,133 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.ConsumerOffset;
+import com.example.ecommerce.model.Order;
+import com.example.ecommerce.model.OrderEventType;
+import com.example.ecommerce.model.OutboxEvent;
+import com.example.ecommerce.repository.ConsumerOffsetRepository;
+import com.example.ecommerce.repository.OutboxEventRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Service
+public class OutboxService {
+
+    private static final Logger logger = LoggerFactory.getLogger(OutboxService.class);
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private ConsumerOffsetRepository consumerOffsetRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Doit être appelé dans la transaction qui modifie la commande : l'événement et la commande
+    // sont validés (ou annulés) ensemble. details = paires clé/valeur ajoutées au payload
+    @Transactional(propagation = Propagation.MANDATORY)
+    public OutboxEvent append(OrderEventType type, Order order, Object... details) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("event_type", type.eventName());
+        payload.put("order_id", order.getId());
+        payload.put("customer_email", order.getCustomerEmail());
+        payload.put("product_id", order.getProduct().getId());
+        payload.put("quantity", order.getQuantity());
+        payload.put("total_amount", order.getTotalAmount());
+        payload.put("status", order.getStatus());
+        payload.put("payment_method", order.getPaymentMethod());
+        payload.put("order_created_at", order.getCreatedAt().toString());
+        for (int i = 0; i + 1 < details.length; i += 2) {
+            payload.put(String.valueOf(details[i]), details[i + 1]);
+        }
+
+        try {
+            OutboxEvent event = new OutboxEvent(type, order.getId(), objectMapper.writeValueAsString(payload));
+            return outboxEventRepository.save(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize outbox event for order " + order.getId(), e);
+        }
+    }
+
+    public List<OutboxEvent> readAfter(long offset, int limit) {
+        return outboxEventRepository.findByLogOffsetGreaterThanOrderByLogOffsetAsc(offset, PageRequest.of(0, limit));
+    }
+    
+    /**
+     * Attribue les offsets suivants aux événements validés qui n'en ont pas encore, dans l'ordre des identifiants.
+     * Un seul appelant à la fois (OutboxSequencer) : les offsets sont denses et deviennent visibles ensemble,
+     * donc un lecteur ne peut jamais voir un offset avant un offset plus petit.
+     */
+    @Transactional
+    public int sequence(int limit) {
+        List<OutboxEvent> events = outboxEventRepository.findByLogOffsetIsNullOrderByIdAsc(PageRequest.of(0, limit));
+        Long latest = outboxEventRepository.findLatestOffset();
+        // Outbox vide (base migrée) : repartir après les offsets déjà acquittés
+        long next = latest != null ? latest : committedMaximum();
+        for (OutboxEvent event : events) {
+            event.setLogOffset(++next);
+        }
+        outboxEventRepository.saveAll(events);
+        return events.size();
+    }
+    
+    private long committedMaximum() {
+        Long committed = consumerOffsetRepository.findMaximumOffset();
+        return committed != null ? committed : 0L;
+    }
+    
+    @Transactional
+    public int sequenceExistingById() {
+        return outboxEventRepository.findLatestOffset() == null ? outboxEventRepository.sequenceById() : 0;
+    }
+
+    public long latestOffset() {
+        Long latest = outboxEventRepository.findLatestOffset();
+        return latest != null ? latest : 0L;
+    }
+
+    public long committedOffset(String consumer) {
+        return consumerOffsetRepository.findById(consumer)
+                .map(ConsumerOffset::getLastOffset)
+                .orElse(0L);
+    }
+
+    @Transactional
+    public void commit(String consumer, long offset) {
+        ConsumerOffset consumerOffset = consumerOffsetRepository.findById(consumer)
+                .orElseGet(() -> new ConsumerOffset(consumer, 0L));
+
+        // Un offset ne recule jamais : un acquittement rejoué (au moins une fois) est sans effet
+        if (offset > consumerOffset.getLastOffset()) {
+            consumerOffset.setLastOffset(offset);
+            consumerOffset.setUpdatedAt(LocalDateTime.now());
+            consumerOffsetRepository.save(consumerOffset);
+        }
+    }
+
+    // Ne supprime que ce que tous les consommateurs (relais et clients pull) ont acquitté. Le dernier
+    // événement est toujours conservé : il porte le dernier offset attribué, d'où repart le séquencement
+    @Transactional
+    public int purgeRelayed(LocalDateTime before) {
+        Long slowest = consumerOffsetRepository.findMinimumOffset();
+        long latest = latestOffset();
+        long relayedOffset = Math.min(slowest != null ? slowest : latest, latest - 1);
+        int deleted = outboxEventRepository.deleteRelayedBefore(relayedOffset, before);
+        if (deleted > 0) {
+            logger.info("Purged {} relayed outbox events older than {}", deleted, before);
+        }
+        return deleted;
+    }
+}
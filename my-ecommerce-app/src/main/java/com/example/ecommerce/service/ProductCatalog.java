@@ -0,0 +1,269 @@
+package com.example.ecommerce.service;
+
+import com.example.ecommerce.model.Product;
+import com.example.ecommerce.repository.ProductRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Modèle de lecture du catalogue : instantanés immuables par catégorie avec leur JSON
+ * pré-sérialisé, remplacés en bloc (copy-on-write). Les modifications de produits sont
+ * regroupées : les produits marqués après commit sont relus en base et appliqués ensemble
+ * toutes les app.catalog.rebuild-interval ms, hors des threads de requête.
+ * Chaque liste et chaque produit porte un numéro de version qui sert d'ETag HTTP.
+ */
+@Component
+public class ProductCatalog {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductCatalog.class);
+
+    private static final byte[] EMPTY_JSON = "[]".getBytes(StandardCharsets.UTF_8);
+
+    // Préfixe propre à ce démarrage : les versions repartent de zéro à chaque redémarrage
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Lu sans verrou ; seuls les écrivains sont synchronisés
+    private volatile Snapshot snapshot;
+
+    // Produits modifiés (commit effectué) pas encore reportés dans l'instantané
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    public record Listing(List<Product> products, byte[] json, byte[] gzip, String etag) {}
+
+    private record Snapshot(long version, Map<Long, Product> byId, Map<Long, Long> productVersions,
+                            Listing all, Map<String, Listing> byCategory) {}
+
+    public Listing all() {
+        return current().all();
+    }
+
+    public Listing byCategory(String category) {
+        Snapshot current = current();
+        Listing listing = current.byCategory().get(category);
+        // Une catégorie inconnue change de contenu dès que le catalogue change
+        return listing != null ? listing : emptyListing(category, current.version());
+    }
+
+    public Optional<Product> byId(Long id) {
+        return Optional.ofNullable(current().byId().get(id));
+    }
+
+    public String catalogETag() {
+        return current().all().etag();
+    }
+
+    public String categoryETag(String category) {
+        return byCategory(category).etag();
+    }
+
+    public Optional<String> productETag(Long id) {
+        Long version = current().productVersions().get(id);
+        return version == null ? Optional.empty() : Optional.of(etagOf("p" + id, version));
+    }
+
+    /**
+     * Signale la modification d'un produit. Dans une transaction, le produit n'est marqué
+     * qu'après le commit pour ne jamais exposer une modification annulée ; il est relu en base
+     * à la prochaine reconstruction, si bien que l'ordre des commits concurrents n'importe pas.
+     */
+    public void publish(Product product) {
+        Long id = product.getId();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    dirty.add(id);
+                }
+            });
+        } else {
+            dirty.add(id);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.rebuild-interval:200}")
+    public void rebuild() {
+        if (dirty.isEmpty() || snapshot == null) {
+            return;
+        }
+        try {
+            refresh();
+        } catch (Exception e) {
+            logger.error("Product catalog rebuild failed: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void reload() {
+        drainDirty();
+        long version = snapshot == null ? 1 : snapshot.version() + 1;
+
+        Map<Long, Product> byId = new TreeMap<>();
+        Map<Long, Long> productVersions = new HashMap<>();
+        for (Product product : productRepository.findAll()) {
+            byId.put(product.getId(), copyOf(product));
+            productVersions.put(product.getId(), version);
+        }
+
+        Map<String, List<Product>> grouped = new HashMap<>();
+        for (Product product : byId.values()) {
+            grouped.computeIfAbsent(product.getCategory(), k -> new ArrayList<>()).add(product);
+        }
+
+        Map<String, Listing> byCategory = new HashMap<>();
+        grouped.forEach((category, products) -> byCategory.put(category, listingOf(products, "c" + Integer.toHexString(category.hashCode()), version)));
+
+        snapshot = new Snapshot(version, Collections.unmodifiableMap(byId), Collections.unmodifiableMap(productVersions),
+                                listingOf(byId.values(), "all", version), Collections.unmodifiableMap(byCategory));
+        logger.info("Product catalog loaded: {} products in {} categories", byId.size(), byCategory.size());
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                if (snapshot == null) {
+                    reload();
+                }
+                current = snapshot;
+            }
+        }
+        return current;
+    }
+
+    private synchronized void refresh() {
+        // Vidé avant la lecture : un produit marqué pendant la lecture sera relu à la reconstruction suivante
+        Set<Long> ids = drainDirty();
+        if (ids.isEmpty()) {
+            return;
+        }
+        Map<Long, Product> changed = new HashMap<>();
+        for (Product product : productRepository.findAllById(ids)) {
+            changed.put(product.getId(), copyOf(product));
+        }
+        apply(ids, changed);
+    }
+
+    private Set<Long> drainDirty() {
+        Set<Long> ids = new HashSet<>();
+        for (Iterator<Long> it = dirty.iterator(); it.hasNext(); ) {
+            ids.add(it.next());
+            it.remove();
+        }
+        return ids;
+    }
+
+    // ids absents de changed : produits supprimés
+    private void apply(Set<Long> ids, Map<Long, Product> changed) {
+        Snapshot current = current();
+        long version = current.version() + 1;
+
+        Map<Long, Product> byId = new TreeMap<>(current.byId());
+        Map<Long, Long> productVersions = new HashMap<>(current.productVersions());
+        Set<String> categories = new HashSet<>();
+        for (Long id : ids) {
+            Product product = changed.get(id);
+            Product previous = product == null ? byId.remove(id) : byId.put(id, product);
+            if (product == null) {
+                productVersions.remove(id);
+            } else {
+                productVersions.put(id, version);
+                categories.add(product.getCategory());
+            }
+            if (previous != null) {
+                categories.add(previous.getCategory());
+            }
+        }
+
+        // Seules la liste globale et les catégories touchées sont re-sérialisées (et changent de version)
+        Map<String, Listing> byCategory = new HashMap<>(current.byCategory());
+        for (String category : categories) {
+            Map<Long, Product> products = new TreeMap<>();
+            Listing listing = current.byCategory().get(category);
+            if (listing != null) {
+                listing.products().forEach(product -> products.put(product.getId(), product));
+            }
+            products.keySet().removeAll(ids);
+            changed.values().stream()
+                    .filter(product -> product.getCategory().equals(category))
+                    .forEach(product -> products.put(product.getId(), product));
+            if (products.isEmpty()) {
+                byCategory.remove(category);
+            } else {
+                byCategory.put(category, listingOf(products.values(), "c" + Integer.toHexString(category.hashCode()), version));
+            }
+        }
+
+        snapshot = new Snapshot(version, Collections.unmodifiableMap(byId), Collections.unmodifiableMap(productVersions),
+                                listingOf(byId.values(), "all", version), Collections.unmodifiableMap(byCategory));
+        logger.debug("Product catalog rebuilt: {} products changed", ids.size());
+    }
+
+    private Listing listingOf(Iterable<Product> products, String key, long version) {
+        List<Product> list = new ArrayList<>();
+        products.forEach(list::add);
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(list);
+            return new Listing(Collections.unmodifiableList(list), json, gzip(json), etagOf(key, version));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize product catalog", e);
+        }
+    }
+
+    private Listing emptyListing(String category, long version) {
+        return new Listing(List.of(), EMPTY_JSON, null, etagOf("c" + Integer.toHexString(category.hashCode()), version));
+    }
+
+    private String etagOf(String key, long version) {
+        return "\"" + epoch + "-" + key + "-" + version + "\"";
+    }
+
+    private static byte[] gzip(byte[] json) {
+        // Les petites listes ne gagnent rien à être compressées
+        if (json.length < 1024) {
+            return null;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static Product copyOf(Product product) {
+        Product copy = new Product(product.getName(), product.getPrice(), product.getCategory(), product.getStock());
+        copy.setId(product.getId());
+        return copy;
+    }
+}
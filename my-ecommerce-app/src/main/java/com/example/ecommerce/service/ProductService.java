@@ -1,5 +1,6 @@
 package com.example.ecommerce.service;
 
+import com.example.ecommerce.analytics.StreamAnalytics;
 import com.example.ecommerce.model.Product;
 import com.example.ecommerce.repository.ProductRepository;
 import org.slf4j.Logger;
@@ -19,12 +20,35 @@ public class ProductService {
     @Autowired
     private ProductRepository productRepository;
     
+    @Autowired
+    private ProductCatalog productCatalog;
+    
+    @Autowired
+    private StreamAnalytics streamAnalytics;
+    
     public List<Product> getAllProducts() {
+        return getAllProductsListing().products();
+    }
+    
+    public ProductCatalog.Listing getAllProductsListing() {
         logger.info("Fetching all products");
-        List<Product> products = productRepository.findAll();
+        ProductCatalog.Listing listing = productCatalog.all();
         businessLogger.info("{{\"event_type\":\"product_list\",\"count\":{},\"timestamp\":\"{}\"}}", 
-                          products.size(), java.time.LocalDateTime.now());
-        return products;
+                          listing.products().size(), java.time.LocalDateTime.now());
+        return listing;
+    }
+    
+    // Versions du catalogue utilisées comme ETag : lecture mémoire, sans accès à la base
+    public String getCatalogETag() {
+        return productCatalog.catalogETag();
+    }
+    
+    public String getCategoryETag(String category) {
+        return productCatalog.categoryETag(category);
+    }
+    
+    public Optional<String> getProductETag(Long id) {
+        return productCatalog.productETag(id);
     }
     
     public Optional<Product> getProductById(Long id) {
@@ -32,6 +56,7 @@ public class ProductService {
         Optional<Product> product = productRepository.findById(id);
         
         if (product.isPresent()) {
+            streamAnalytics.recordProductView(id);
             businessLogger.info("{{\"event_type\":\"product_view\",\"product_id\":{},\"product_name\":\"{}\",\"category\":\"{}\",\"timestamp\":\"{}\"}}",
                               id, product.get().getName(), product.get().getCategory(), java.time.LocalDateTime.now());
         } else {
@@ -44,16 +69,21 @@ public class ProductService {
     }
     
     public List<Product> getProductsByCategory(String category) {
+        return getCategoryListing(category).products();
+    }
+    
+    public ProductCatalog.Listing getCategoryListing(String category) {
         logger.info("Fetching products by category: {}", category);
-        List<Product> products = productRepository.findByCategory(category);
+        ProductCatalog.Listing listing = productCatalog.byCategory(category);
         businessLogger.info("{{\"event_type\":\"category_search\",\"category\":\"{}\",\"count\":{},\"timestamp\":\"{}\"}}",
-                          category, products.size(), java.time.LocalDateTime.now());
-        return products;
+                          category, listing.products().size(), java.time.LocalDateTime.now());
+        return listing;
     }
     
     public List<Product> searchProducts(String query) {
         logger.info("Searching products with query: {}", query);
         List<Product> products = productRepository.findByNameContainingIgnoreCase(query);
+        streamAnalytics.recordSearch(query);
         businessLogger.info("{{\"event_type\":\"product_search\",\"query\":\"{}\",\"results_count\":{},\"timestamp\":\"{}\"}}",
                           query, products.size(), java.time.LocalDateTime.now());
         return products;
@@ -62,6 +92,7 @@ public class ProductService {
     public Product saveProduct(Product product) {
         logger.info("Saving new product: {}", product.getName());
         Product savedProduct = productRepository.save(product);
+        productCatalog.publish(savedProduct);
         businessLogger.info("{{\"event_type\":\"product_created\",\"product_id\":{},\"product_name\":\"{}\",\"category\":\"{}\",\"price\":{},\"timestamp\":\"{}\"}}",
                           savedProduct.getId(), savedProduct.getName(), savedProduct.getCategory(), 
                           savedProduct.getPrice(), java.time.LocalDateTime.now());
@@ -77,6 +108,7 @@ public class ProductService {
             Integer oldStock = product.getStock();
             product.setStock(newStock);
             productRepository.save(product);
+            productCatalog.publish(product);
             
             businessLogger.info("{{\"event_type\":\"stock_update\",\"product_id\":{},\"old_stock\":{},\"new_stock\":{},\"timestamp\":\"{}\"}}",
                               productId, oldStock, newStock, java.time.LocalDateTime.now());
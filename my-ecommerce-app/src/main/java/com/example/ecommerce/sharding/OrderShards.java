@@ -0,0 +1,151 @@
+package com.example.ecommerce.sharding;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+/**
+ * Accès aux commandes réparties par hachage de customerEmail dans les schémas SHARD_i.
+ * Une opération sur une commande s'exécute dans une transaction ouverte sur son shard ;
+ * les parcours (statut, période, chiffre d'affaires) interrogent les shards en parallèle, un fil par shard.
+ */
+@Component
+public class OrderShards {
+
+    private static final int LOCATE_ATTEMPTS = 3;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ExecutorService executor;
+    private volatile ShardLayout layout;
+
+    public OrderShards(@Value("${app.sharding.shards:4}") int shards,
+                       @Value("${app.sharding.query-threads:8}") int queryThreads) {
+        this.layout = new ShardLayout(shards, shards, false);
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(queryThreads, runnable -> {
+            Thread thread = new Thread(runnable, "shard-query-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public ShardLayout layout() {
+        return layout;
+    }
+
+    void setLayout(ShardLayout layout) {
+        this.layout = layout;
+    }
+
+    public int shardOf(String customerEmail) {
+        return layout.shardOf(customerEmail);
+    }
+
+    // Transaction sur le shard ; rejoint la transaction en cours si elle est déjà sur ce shard
+    public <T> T inShard(int shard, boolean readOnly, Supplier<T> action) {
+        String schema = ShardContext.schemaOf(shard);
+        boolean join = TransactionSynchronizationManager.isActualTransactionActive()
+                && schema.equals(ShardContext.current());
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(join ? TransactionDefinition.PROPAGATION_REQUIRED
+                                             : TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        template.setReadOnly(readOnly);
+
+        String previous = ShardContext.enter(schema);
+        try {
+            return template.execute(status -> action.get());
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    public <T> T inCustomerShard(String customerEmail, Supplier<T> action) {
+        return inShard(shardOf(customerEmail), false, action);
+    }
+
+    /**
+     * Exécute action dans la transaction du shard qui contient la commande (shard cible par défaut
+     * si elle n'existe pas : l'action constate son absence). Si un rééquilibrage la déplace entre
+     * la localisation et la mise à jour, on la relocalise.
+     */
+    public <T> T inOrderShard(long orderId, IntFunction<Boolean> containsOrder, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            int shard = locate(orderId, containsOrder);
+            try {
+                return inShard(shard, false, action);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= LOCATE_ATTEMPTS || !layout.rebalancing()) {
+                    throw e;
+                }
+            }
+        }
+    }
+
+    // Lance query sur chacun des shards en parallèle (transactions en lecture seule) ; résultats dans l'ordre des shards
+    public <T> List<T> scatter(int[] shards, IntFunction<T> query) {
+        List<Future<T>> futures = new ArrayList<>(shards.length);
+        for (int i = 1; i < shards.length; i++) {
+            int shard = shards[i];
+            futures.add(executor.submit(() -> inShard(shard, true, () -> query.apply(shard))));
+        }
+
+        // Le premier shard est lu par le thread appelant
+        List<T> results = new ArrayList<>(shards.length);
+        results.add(inShard(shards[0], true, () -> query.apply(shards[0])));
+        try {
+            for (Future<T> future : futures) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Interrupted while querying shards", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException("Shard query failed", e.getCause());
+        }
+        return results;
+    }
+
+    public <T> List<T> scatterAll(IntFunction<T> query) {
+        return scatter(layout.allShards(), query);
+    }
+
+    private int locate(long orderId, IntFunction<Boolean> containsOrder) {
+        int[] shards = layout.allShards();
+        List<Boolean> found = scatter(shards, containsOrder);
+        for (int i = found.size() - 1; i >= 0; i--) {
+            if (found.get(i)) {
+                return shards[i];
+            }
+        }
+        return shards[shards.length - 1];
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
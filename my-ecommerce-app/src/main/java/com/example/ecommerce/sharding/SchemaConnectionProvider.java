@@ -0,0 +1,66 @@
+package com.example.ecommerce.sharding;
+
+import org.hibernate.engine.jdbc.connections.spi.MultiTenantConnectionProvider;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+// Un schéma par shard dans la même base : la connexion du pool est placée sur le schéma du shard,
+// puis remise sur PUBLIC avant d'être rendue (JdbcTemplate et les autres utilisateurs du pool n'en voient rien)
+class SchemaConnectionProvider implements MultiTenantConnectionProvider {
+
+    private final DataSource dataSource;
+
+    SchemaConnectionProvider(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Connection getAnyConnection() throws SQLException {
+        return dataSource.getConnection();
+    }
+
+    @Override
+    public void releaseAnyConnection(Connection connection) throws SQLException {
+        connection.close();
+    }
+
+    @Override
+    public Connection getConnection(String schema) throws SQLException {
+        Connection connection = getAnyConnection();
+        try {
+            connection.setSchema(schema);
+            return connection;
+        } catch (SQLException e) {
+            connection.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public void releaseConnection(String schema, Connection connection) throws SQLException {
+        try {
+            if (!ShardContext.DEFAULT_SCHEMA.equals(schema)) {
+                connection.setSchema(ShardContext.DEFAULT_SCHEMA);
+            }
+        } finally {
+            connection.close();
+        }
+    }
+
+    @Override
+    public boolean supportsAggressiveRelease() {
+        return false;
+    }
+
+    @Override
+    public boolean isUnwrappableAs(Class<?> unwrapType) {
+        return unwrapType.isInstance(this);
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> unwrapType) {
+        return unwrapType.cast(this);
+    }
+}
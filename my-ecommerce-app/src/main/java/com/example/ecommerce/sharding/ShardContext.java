@@ -0,0 +1,38 @@
+package com.example.ecommerce.sharding;
+
+/**
+ * Shard de la transaction en cours sur ce thread, sous forme de schéma H2 (identifiant de tenant Hibernate).
+ * Lu à l'ouverture de la session : il doit être positionné avant le début de la transaction.
+ */
+public final class ShardContext {
+
+    public static final String DEFAULT_SCHEMA = "PUBLIC";
+
+    private static final ThreadLocal<String> CURRENT = new ThreadLocal<>();
+
+    private ShardContext() {}
+
+    public static String schemaOf(int shard) {
+        return shard < 0 ? DEFAULT_SCHEMA : "SHARD_" + shard;
+    }
+
+    static String current() {
+        String schema = CURRENT.get();
+        return schema != null ? schema : DEFAULT_SCHEMA;
+    }
+
+    // Retourne le schéma précédent, à restaurer avec restore()
+    static String enter(String schema) {
+        String previous = CURRENT.get();
+        CURRENT.set(schema);
+        return previous;
+    }
+
+    static void restore(String previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
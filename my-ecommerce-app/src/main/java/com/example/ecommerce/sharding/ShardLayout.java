@@ -0,0 +1,48 @@
+package com.example.ecommerce.sharding;
+
+/**
+ * Répartition des commandes. shards = nombre de shards où sont écrites les nouvelles commandes ;
+ * schemas = nombre de schémas SHARD_i pouvant encore contenir des lignes (> shards pendant une réduction).
+ * Pendant un rééquilibrage, une commande peut encore se trouver hors de son shard cible (ou dans la table
+ * historique PUBLIC.orders) : les lectures par client ou par identifiant parcourent alors tous les schémas.
+ */
+public record ShardLayout(int shards, int schemas, boolean rebalancing) {
+
+    public ShardLayout {
+        if (shards < 1 || schemas < shards) {
+            throw new IllegalArgumentException("Invalid shard layout: " + shards + " shards, " + schemas + " schemas");
+        }
+    }
+
+    // Shard cible d'un client : hachage cohérent (jump hash), passer de N à N+1 shards ne déplace qu'un client sur N+1
+    public int shardOf(String customerEmail) {
+        long key = 0xcbf29ce484222325L;
+        for (int i = 0; i < customerEmail.length(); i++) {
+            key ^= customerEmail.charAt(i);
+            key *= 0x100000001b3L;
+        }
+
+        long bucket = -1;
+        long next = 0;
+        while (next < shards) {
+            bucket = next;
+            key = key * 2862933555777941757L + 1;
+            next = (long) ((bucket + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) bucket;
+    }
+
+    // Schémas à lire pour un parcours complet ; -1 = table historique PUBLIC.orders
+    public int[] allShards() {
+        int offset = rebalancing ? 1 : 0;
+        int[] all = new int[schemas + offset];
+        for (int i = 0; i < all.length; i++) {
+            all[i] = i - offset;
+        }
+        return all;
+    }
+
+    public int[] shardsOf(String customerEmail) {
+        return rebalancing ? allShards() : new int[] {shardOf(customerEmail)};
+    }
+}
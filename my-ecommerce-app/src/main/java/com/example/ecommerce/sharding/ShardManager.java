@@ -0,0 +1,283 @@
+package com.example.ecommerce.sharding;
+
+import com.example.ecommerce.model.Order;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+/**
+ * Création des schémas SHARD_i et rééquilibrage en ligne des commandes.
+ *
+ * La table de chaque shard est copiée de PUBLIC.orders (générée par Hibernate), qui ne sert plus
+ * que de modèle et de source pour les commandes d'avant le partitionnement. La répartition en vigueur
+ * est conservée dans PUBLIC.order_shard_layout : au démarrage, si elle diffère de app.sharding.shards
+ * (ou si un rééquilibrage a été interrompu), les commandes sont redéplacées en tâche de fond.
+ *
+ * Rééquilibrage : les nouvelles commandes vont immédiatement dans leur shard cible ; chaque schéma
+ * est parcouru par lots d'identifiants et les lignes mal placées sont déplacées (verrouillage,
+ * copie, suppression) dans une seule transaction par lot, sans arrêter le service.
+ */
+@Component
+public class ShardManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(ShardManager.class);
+
+    private static final int MAX_PASSES = 3;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OrderShards orderShards;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Les tables d'Hibernate (dont PUBLIC.orders, modèle des shards) doivent exister
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Value("${app.sharding.shards:4}")
+    private int configuredShards;
+
+    @Value("${app.sharding.rebalance-batch:1000}")
+    private int rebalanceBatch;
+
+    private final ExecutorService rebalancer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "shard-rebalance");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile long movedOrders;
+    private volatile boolean rebalanceRunning;
+
+    @PostConstruct
+    void initialize() {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS PUBLIC.ORDER_SHARD_LAYOUT (ID INT PRIMARY KEY, "
+                             + "SHARDS INT NOT NULL, SCHEMAS INT NOT NULL, REBALANCING BOOLEAN NOT NULL)");
+        List<ShardLayout> stored = jdbcTemplate.query(
+                "SELECT SHARDS, SCHEMAS, REBALANCING FROM PUBLIC.ORDER_SHARD_LAYOUT WHERE ID = 1",
+                (resultSet, row) -> new ShardLayout(resultSet.getInt(1), resultSet.getInt(2), resultSet.getBoolean(3)));
+
+        int schemas = Math.max(configuredShards, stored.isEmpty() ? 0 : stored.get(0).schemas());
+        createSchemas(schemas);
+        synchronizeSequence(schemas);
+
+        long legacyOrders = countOrders(-1);
+        boolean consistent = !stored.isEmpty() && stored.get(0).shards() == configuredShards && !stored.get(0).rebalancing();
+        if (legacyOrders == 0 && (stored.isEmpty() || consistent)) {
+            apply(new ShardLayout(configuredShards, schemas, false));
+            logger.info("Orders sharded across {} schemas", configuredShards);
+            return;
+        }
+
+        logger.info("Order shard layout changed ({} -> {} shards, {} orders to migrate from PUBLIC.orders): rebalancing",
+                  stored.isEmpty() ? 0 : stored.get(0).shards(), configuredShards, legacyOrders);
+        startRebalance(new ShardLayout(configuredShards, schemas, true));
+    }
+
+    /**
+     * Passe à shards shards sans interruption : les écritures suivent la nouvelle répartition dès le retour,
+     * les commandes existantes sont déplacées en tâche de fond. Pour la conserver au redémarrage,
+     * reporter la valeur dans app.sharding.shards.
+     */
+    public synchronized ShardLayout reshard(int shards) {
+        if (shards < 1) {
+            throw new IllegalArgumentException("Shard count must be positive: " + shards);
+        }
+        ShardLayout current = orderShards.layout();
+        if (rebalanceRunning) {
+            throw new IllegalStateException("A rebalance is already running");
+        }
+        if (current.shards() == shards && !current.rebalancing()) {
+            return current;
+        }
+
+        int schemas = Math.max(current.schemas(), shards);
+        createSchemas(schemas);
+        logger.info("Resharding orders from {} to {} shards", current.shards(), shards);
+        return startRebalance(new ShardLayout(shards, schemas, true));
+    }
+
+    public Map<String, Object> status() {
+        ShardLayout layout = orderShards.layout();
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (int shard : layout.allShards()) {
+            counts.put(ShardContext.schemaOf(shard), countOrders(shard));
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("shards", layout.shards());
+        status.put("schemas", layout.schemas());
+        status.put("rebalancing", layout.rebalancing());
+        status.put("rebalanceRunning", rebalanceRunning);
+        status.put("movedOrders", movedOrders);
+        status.put("orders", counts);
+        return status;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        rebalancer.shutdownNow();
+    }
+
+    private ShardLayout startRebalance(ShardLayout target) {
+        apply(target);
+        rebalanceRunning = true;
+        rebalancer.submit(() -> rebalance(target));
+        return target;
+    }
+
+    private void rebalance(ShardLayout target) {
+        long startTime = System.currentTimeMillis();
+        try {
+            // Une commande créée par une transaction commencée avant le changement de répartition
+            // peut arriver dans un schéma déjà parcouru : on repasse tant qu'une passe déplace des lignes
+            for (int pass = 1; pass <= MAX_PASSES; pass++) {
+                long moved = 0;
+                for (int source : target.allShards()) {
+                    moved += rebalanceSchema(source, target);
+                }
+                if (moved == 0) {
+                    break;
+                }
+            }
+
+            // Les schémas au-delà de la cible sont vides ; ils restent en place (parcours en cours)
+            synchronized (this) {
+                apply(new ShardLayout(target.shards(), target.shards(), false));
+            }
+            logger.info("Order rebalance to {} shards done in {}ms, {} orders moved",
+                      target.shards(), System.currentTimeMillis() - startTime, movedOrders);
+
+        } catch (Exception e) {
+            // La répartition reste marquée en rééquilibrage : relancé au prochain démarrage ou par reshard
+            logger.error("Order rebalance to {} shards failed: {}", target.shards(), e.getMessage(), e);
+        } finally {
+            rebalanceRunning = false;
+        }
+    }
+
+    private long rebalanceSchema(int source, ShardLayout target) {
+        String table = table(source);
+        long moved = 0;
+        long afterId = Long.MIN_VALUE;
+
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT ID, CUSTOMER_EMAIL FROM " + table + " WHERE ID > ? ORDER BY ID LIMIT ?", afterId, rebalanceBatch);
+            if (rows.isEmpty()) {
+                return moved;
+            }
+            afterId = ((Number) rows.get(rows.size() - 1).get("ID")).longValue();
+
+            Map<Integer, List<Long>> misplaced = new HashMap<>();
+            for (Map<String, Object> row : rows) {
+                int shard = target.shardOf((String) row.get("CUSTOMER_EMAIL"));
+                if (shard != source) {
+                    misplaced.computeIfAbsent(shard, key -> new ArrayList<>()).add(((Number) row.get("ID")).longValue());
+                }
+            }
+            for (Map.Entry<Integer, List<Long>> entry : misplaced.entrySet()) {
+                moved += move(source, entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    // Verrouille les lignes avant de les copier : une mise à jour concurrente attend la fin du déplacement
+    // puis échoue sur l'ancien shard (ligne absente) et est relancée sur le nouveau par OrderShards
+    private int move(int source, int target, List<Long> ids) {
+        String idList = ids.stream().map(String::valueOf).collect(Collectors.joining(","));
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+
+        Integer moved = template.execute(status -> {
+            List<Long> locked = jdbcTemplate.queryForList(
+                    "SELECT ID FROM " + table(source) + " WHERE ID IN (" + idList + ") FOR UPDATE", Long.class);
+            if (locked.isEmpty()) {
+                return 0;
+            }
+            String lockedList = locked.stream().map(String::valueOf).collect(Collectors.joining(","));
+            jdbcTemplate.update("INSERT INTO " + table(target) + " SELECT * FROM " + table(source)
+                                + " WHERE ID IN (" + lockedList + ")");
+            return jdbcTemplate.update("DELETE FROM " + table(source) + " WHERE ID IN (" + lockedList + ")");
+        });
+        movedOrders += moved;
+        return moved;
+    }
+
+    private void createSchemas(int schemas) {
+        for (int shard = 0; shard < schemas; shard++) {
+            String schema = ShardContext.schemaOf(shard);
+            jdbcTemplate.execute("CREATE SCHEMA IF NOT EXISTS " + schema);
+            Integer exists = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_NAME = 'ORDERS'",
+                    Integer.class, schema);
+            if (exists != null && exists > 0) {
+                continue;
+            }
+            // Mêmes colonnes que PUBLIC.orders, dans le même ordre (les déplacements copient par SELECT *)
+            jdbcTemplate.execute("CREATE TABLE " + schema + ".ORDERS AS SELECT * FROM PUBLIC.ORDERS WITH NO DATA");
+            for (String column : jdbcTemplate.queryForList("SELECT COLUMN_NAME FROM INFORMATION_SCHEMA.COLUMNS WHERE "
+                    + "TABLE_SCHEMA = 'PUBLIC' AND TABLE_NAME = 'ORDERS' AND IS_NULLABLE = 'NO'", String.class)) {
+                jdbcTemplate.execute("ALTER TABLE " + schema + ".ORDERS ALTER COLUMN " + column + " SET NOT NULL");
+            }
+            jdbcTemplate.execute("ALTER TABLE " + schema + ".ORDERS ADD PRIMARY KEY (ID)");
+            jdbcTemplate.execute("ALTER TABLE " + schema + ".ORDERS ADD FOREIGN KEY (PRODUCT_ID) REFERENCES PUBLIC.PRODUCTS (ID)");
+            jdbcTemplate.execute("CREATE INDEX " + schema + ".IDX_ORDERS_CUSTOMER ON " + schema + ".ORDERS (CUSTOMER_EMAIL)");
+            jdbcTemplate.execute("CREATE INDEX " + schema + ".IDX_ORDERS_STATUS ON " + schema + ".ORDERS (STATUS)");
+            jdbcTemplate.execute("CREATE INDEX " + schema + ".IDX_ORDERS_CREATED_AT ON " + schema + ".ORDERS (CREATED_AT)");
+        }
+    }
+
+    // Les identifiants viennent d'une séquence commune à tous les shards ; une base créée avant
+    // le partitionnement (colonne IDENTITY) a déjà des identifiants au-delà de la séquence neuve
+    private void synchronizeSequence(int schemas) {
+        long maxId = 0;
+        for (int shard = -1; shard < schemas; shard++) {
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(ID) FROM " + table(shard), Long.class);
+            maxId = Math.max(maxId, max != null ? max : 0);
+        }
+        Long next = jdbcTemplate.queryForObject("SELECT BASE_VALUE FROM INFORMATION_SCHEMA.SEQUENCES "
+                                                + "WHERE SEQUENCE_SCHEMA = 'PUBLIC' AND SEQUENCE_NAME = 'ORDERS_SEQ'", Long.class);
+        // Hibernate (optimiseur pooled) distribue le bloc ]next - taille, next] : on ne recale la séquence que si
+        // ce bloc atteint un identifiant existant (base neuve ou redémarrage normal : rien à faire)
+        if (next != null && maxId > 0 && next - Order.ID_ALLOCATION_SIZE < maxId) {
+            long restart = maxId + Order.ID_ALLOCATION_SIZE + 1;
+            jdbcTemplate.execute("ALTER SEQUENCE PUBLIC.ORDERS_SEQ RESTART WITH " + restart);
+            logger.info("Order id sequence moved past existing orders: restarts at {}", restart);
+        }
+    }
+
+    private long countOrders(int shard) {
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table(shard), Long.class);
+        return count != null ? count : 0;
+    }
+
+    private void apply(ShardLayout layout) {
+        jdbcTemplate.update("MERGE INTO PUBLIC.ORDER_SHARD_LAYOUT (ID, SHARDS, SCHEMAS, REBALANCING) KEY (ID) VALUES (1, ?, ?, ?)",
+                            layout.shards(), layout.schemas(), layout.rebalancing());
+        orderShards.setLayout(layout);
+    }
+
+    private static String table(int shard) {
+        return ShardContext.schemaOf(shard) + ".ORDERS";
+    }
+}
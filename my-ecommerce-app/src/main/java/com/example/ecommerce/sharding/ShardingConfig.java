@@ -0,0 +1,34 @@
+package com.example.ecommerce.sharding;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.context.spi.CurrentTenantIdentifierResolver;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+// Multi-tenancy Hibernate par schéma : Order est résolu dans le schéma du shard courant,
+// les autres entités sont qualifiées par PUBLIC et restent partagées (même transaction, même connexion)
+@Configuration
+public class ShardingConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer shardTenancyCustomizer(DataSource dataSource) {
+        CurrentTenantIdentifierResolver resolver = new CurrentTenantIdentifierResolver() {
+            @Override
+            public String resolveCurrentTenantIdentifier() {
+                return ShardContext.current();
+            }
+
+            @Override
+            public boolean validateExistingCurrentSessions() {
+                return false;
+            }
+        };
+        return properties -> {
+            properties.put(AvailableSettings.MULTI_TENANT_CONNECTION_PROVIDER, new SchemaConnectionProvider(dataSource));
+            properties.put(AvailableSettings.MULTI_TENANT_IDENTIFIER_RESOLVER, resolver);
+        };
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.ecommerce.archive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BloomFilterTest {
+
+    private static List<String> emails(String prefix, int count) {
+        List<String> emails = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            emails.add(prefix + i + "@example.com");
+        }
+        return emails;
+    }
+
+    @Test
+    void neverReportsAnAddedKeyAsAbsent() {
+        List<String> keys = emails("customer", 5000);
+        BloomFilter filter = BloomFilter.of(keys);
+
+        for (String key : keys) {
+            assertTrue(filter.mightContain(key), key);
+        }
+    }
+
+    @Test
+    void falsePositiveRateIsAboutOnePercent() {
+        BloomFilter filter = BloomFilter.of(emails("customer", 5000));
+
+        int falsePositives = 0;
+        int absent = 100_000;
+        for (String key : emails("absent", absent)) {
+            if (filter.mightContain(key)) {
+                falsePositives++;
+            }
+        }
+        double rate = (double) falsePositives / absent;
+        assertTrue(rate < 0.02, "false positive rate " + rate);
+    }
+
+    @Test
+    void survivesSerialization() {
+        List<String> keys = emails("customer", 1000);
+        BloomFilter filter = BloomFilter.of(keys);
+        byte[] bytes = filter.toBytes();
+        BloomFilter restored = BloomFilter.fromBytes(bytes);
+
+        assertArrayEquals(bytes, restored.toBytes());
+        for (String key : keys) {
+            assertTrue(restored.mightContain(key), key);
+        }
+    }
+
+    @Test
+    void emptySegmentMatchesNothing() {
+        BloomFilter filter = BloomFilter.of(List.of());
+
+        for (String key : emails("customer", 100)) {
+            assertFalse(filter.mightContain(key), key);
+        }
+    }
+}
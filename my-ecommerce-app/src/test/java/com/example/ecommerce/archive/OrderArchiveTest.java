@@ -0,0 +1,55 @@
+package com.example.ecommerce.archive;
+
+import com.example.ecommerce.model.ArchiveSegment;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// Élagage des segments : un segment ne peut être sauté que s'il ne contient sûrement pas la commande
+class OrderArchiveTest {
+
+    private static ArchiveSegment segment(String statuses, byte[] customerFilter) {
+        LocalDate day = LocalDate.of(2025, 1, 1);
+        return new ArchiveSegment("orders-20250101-20250101-00000000000000000001.ndjson.gz", 2, 1L, 2L,
+                                  day, day, 100L, statuses, customerFilter);
+    }
+
+    @Test
+    void segmentIsReadOnlyForItsStatuses() {
+        ArchiveSegment segment = segment("DELIVERED,SHIPPED", null);
+
+        assertTrue(OrderArchive.mayContainStatus(segment, "DELIVERED"));
+        assertTrue(OrderArchive.mayContainStatus(segment, "SHIPPED"));
+        assertFalse(OrderArchive.mayContainStatus(segment, "PENDING"));
+        // Comparaison de valeurs entières, pas de sous-chaînes
+        assertFalse(OrderArchive.mayContainStatus(segment, "SHIP"));
+    }
+
+    @Test
+    void segmentIsSkippedForAbsentCustomers() {
+        ArchiveSegment segment = segment("DELIVERED",
+                                         BloomFilter.of(List.of("alice@example.com", "bob@example.com")).toBytes());
+
+        assertTrue(OrderArchive.mayContainCustomer(segment, "alice@example.com"));
+        assertTrue(OrderArchive.mayContainCustomer(segment, "bob@example.com"));
+        int read = 0;
+        for (int i = 0; i < 1000; i++) {
+            if (OrderArchive.mayContainCustomer(segment, "other" + i + "@example.com")) {
+                read++;
+            }
+        }
+        assertTrue(read < 50, read + " segments read for absent customers");
+    }
+
+    @Test
+    void legacySegmentsWithoutPruningDataAreAlwaysRead() {
+        ArchiveSegment segment = segment(null, null);
+
+        assertTrue(OrderArchive.mayContainStatus(segment, "PENDING"));
+        assertTrue(OrderArchive.mayContainCustomer(segment, "alice@example.com"));
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.ecommerce.reporting;
+
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Chaque requête est comparée à un calcul naïf ligne par ligne sur les mêmes commandes
+class GroupByQueryTest {
+
+    private static final String[] CATEGORIES = {"Electronics", "Books", "Garden", "Toys"};
+    private static final String[] STATUSES = {"PENDING", "PAID", "SHIPPED", "DELIVERED", "CANCELLED"};
+    private static final String[] PAYMENTS = {null, "CARD", "PAYPAL"};
+    private static final int CUSTOMERS = 600;
+    private static final int DAYS = 400;
+    private static final int FIRST_DAY = (int) LocalDate.of(2024, 1, 1).toEpochDay();
+    private static final int ORDERS = 200_000;
+
+    private record Row(long amountCents, int quantity, long productId, String category, int epochDay,
+                       String status, String paymentMethod, String customerEmail) {
+    }
+
+    private static final Row[] rows = new Row[ORDERS];
+    private static final OrderColumns columns = new OrderColumns();
+    private static ForkJoinPool single;
+    private static ForkJoinPool wide;
+
+    @BeforeAll
+    static void load() {
+        Random random = new Random(42);
+        for (int i = 0; i < ORDERS; i++) {
+            rows[i] = new Row(100 + random.nextInt(100_000), 1 + random.nextInt(5), 1 + random.nextInt(50),
+                              CATEGORIES[random.nextInt(CATEGORIES.length)],
+                              // Premier et dernier jour toujours présents : cardinalité DAY exacte
+                              i == 0 ? FIRST_DAY : i == 1 ? FIRST_DAY + DAYS - 1 : FIRST_DAY + random.nextInt(DAYS),
+                              STATUSES[random.nextInt(STATUSES.length)], PAYMENTS[random.nextInt(PAYMENTS.length)],
+                              "customer" + (i < CUSTOMERS ? i : random.nextInt(CUSTOMERS)) + "@example.com");
+            upsert(i, rows[i]);
+        }
+        // Mises à jour en place (statut, paiement) d'une commande sur dix
+        for (int i = 0; i < ORDERS; i += 10) {
+            Row row = rows[i];
+            rows[i] = new Row(row.amountCents(), row.quantity(), row.productId(), row.category(), row.epochDay(),
+                              "DELIVERED", "CARD", row.customerEmail());
+            upsert(i, rows[i]);
+        }
+        single = new ForkJoinPool(1);
+        wide = new ForkJoinPool(16);
+    }
+
+    @AfterAll
+    static void shutdown() {
+        single.shutdown();
+        wide.shutdown();
+    }
+
+    private static void upsert(long orderId, Row row) {
+        columns.upsert(orderId, row.amountCents(), row.quantity(), row.productId(), row.category(), row.epochDay(),
+                       row.status(), row.paymentMethod(), row.customerEmail());
+    }
+
+    @Test
+    void groupsByTwoDimensions() {
+        OrderFilter filter = new OrderFilter(LocalDate.ofEpochDay(FIRST_DAY + 30), LocalDate.ofEpochDay(FIRST_DAY + 200),
+                                             null, "CARD", null, null);
+        List<Dimension> dimensions = List.of(Dimension.CATEGORY, Dimension.STATUS);
+
+        assertMatches(filter, dimensions, new GroupByQuery(columns, filter, dimensions).execute(wide, GroupByQuery.Sort.KEY, 0));
+    }
+
+    @Test
+    void groupsWithoutDimension() {
+        OrderFilter filter = OrderFilter.ALL.withStatus("PENDING");
+
+        assertMatches(filter, List.of(), new GroupByQuery(columns, filter, List.of()).execute(wide, GroupByQuery.Sort.KEY, 0));
+    }
+
+    // Clients x jours = 240 000 groupes : tableaux partiels par feuille avec 1 thread,
+    // accumulation partagée atomique avec 16 (32 feuilles x 240 000 x 3 longs > 128 Mo)
+    @Test
+    void partialAndSharedAccumulationAgree() {
+        List<Dimension> dimensions = List.of(Dimension.CUSTOMER, Dimension.DAY);
+
+        GroupByQuery partial = new GroupByQuery(columns, OrderFilter.ALL, dimensions);
+        ReportResult partialResult = partial.execute(single, GroupByQuery.Sort.KEY, 0);
+        assertNull(ReflectionTestUtils.getField(partial, "shared"));
+        assertMatches(OrderFilter.ALL, dimensions, partialResult);
+
+        GroupByQuery shared = new GroupByQuery(columns, OrderFilter.ALL, dimensions);
+        ReportResult sharedResult = shared.execute(wide, GroupByQuery.Sort.KEY, 0);
+        assertNotNull(ReflectionTestUtils.getField(shared, "shared"));
+        assertMatches(OrderFilter.ALL, dimensions, sharedResult);
+    }
+
+    @Test
+    void topRowsFollowTheSortOrder() {
+        List<Dimension> dimensions = List.of(Dimension.CUSTOMER);
+        ReportResult result = new GroupByQuery(columns, OrderFilter.ALL, dimensions).execute(wide, GroupByQuery.Sort.REVENUE, 10);
+
+        List<Long> expected = expected(OrderFilter.ALL, dimensions).values().stream()
+                .map(totals -> totals[1])
+                .sorted((a, b) -> Long.compare(b, a))
+                .limit(10)
+                .toList();
+        assertEquals(expected, result.rows().stream().map(row -> row.revenue().movePointRight(2).longValueExact()).toList());
+    }
+
+    @Test
+    void unknownFilterValueMatchesNothing() {
+        ReportResult result = new GroupByQuery(columns, OrderFilter.ALL.withStatus("REFUNDED"), List.of(Dimension.STATUS))
+                .execute(wide, GroupByQuery.Sort.KEY, 0);
+
+        assertEquals(ORDERS, result.scannedOrders());
+        assertEquals(0, result.matchedOrders());
+        assertEquals(0, result.rows().size());
+    }
+
+    @Test
+    void rejectsMoreThanTwoDimensions() {
+        assertThrows(IllegalArgumentException.class,
+                     () -> new GroupByQuery(columns, OrderFilter.ALL, List.of(Dimension.CATEGORY, Dimension.STATUS, Dimension.DAY)));
+    }
+
+    private static void assertMatches(OrderFilter filter, List<Dimension> dimensions, ReportResult result) {
+        Map<Map<String, String>, long[]> expected = expected(filter, dimensions);
+        Map<Map<String, String>, long[]> actual = new HashMap<>();
+        for (ReportRow row : result.rows()) {
+            actual.put(row.group(), new long[] {row.orders(), row.revenue().movePointRight(2).longValueExact(), row.quantity()});
+        }
+
+        assertEquals(expected.size(), actual.size());
+        assertEquals(expected.size(), result.groups());
+        for (Map.Entry<Map<String, String>, long[]> entry : expected.entrySet()) {
+            long[] totals = actual.get(entry.getKey());
+            assertNotNull(totals, "missing group " + entry.getKey());
+            assertEquals(List.of(entry.getValue()[0], entry.getValue()[1], entry.getValue()[2]),
+                         List.of(totals[0], totals[1], totals[2]), "group " + entry.getKey());
+        }
+        assertEquals(expected.values().stream().mapToLong(totals -> totals[0]).sum(), result.matchedOrders());
+    }
+
+    private static Map<Map<String, String>, long[]> expected(OrderFilter filter, List<Dimension> dimensions) {
+        Map<Map<String, String>, long[]> groups = new HashMap<>();
+        for (Row row : rows) {
+            LocalDate day = LocalDate.ofEpochDay(row.epochDay());
+            String payment = row.paymentMethod() == null ? "NONE" : row.paymentMethod();
+            if ((filter.from() != null && day.isBefore(filter.from()))
+                    || (filter.to() != null && day.isAfter(filter.to()))
+                    || (filter.status() != null && !filter.status().equals(row.status()))
+                    || (filter.paymentMethod() != null && !filter.paymentMethod().equals(payment))
+                    || (filter.category() != null && !filter.category().equals(row.category()))
+                    || (filter.customerEmail() != null && !filter.customerEmail().equals(row.customerEmail()))) {
+                continue;
+            }
+            Map<String, String> group = new LinkedHashMap<>();
+            for (Dimension dimension : dimensions) {
+                group.put(dimension.fieldName(), switch (dimension) {
+                    case CATEGORY -> row.category();
+                    case DAY -> day.toString();
+                    case PAYMENT_METHOD -> payment;
+                    case STATUS -> row.status();
+                    case CUSTOMER -> row.customerEmail();
+                    case PRODUCT -> String.valueOf(row.productId());
+                });
+            }
+            long[] totals = groups.computeIfAbsent(group, key -> new long[3]);
+            totals[0]++;
+            totals[1] += row.amountCents();
+            totals[2] += row.quantity();
+        }
+        return groups;
+    }
+}